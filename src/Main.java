@@ -1,3 +1,4 @@
+import metrics.Metrics;
 import swingui.LoginWindow;
 import util.DatabaseManager;
 
@@ -6,6 +7,7 @@ import javax.swing.*;
 public class Main {
     public static void main(String[] args) {
         DatabaseManager.initializeDatabase();
+        Metrics.startFromSystemProperties();
         System.out.println("=== LIBRARY MANAGEMENT SYSTEM ===\n");
         System.out.println("=== DEMO MODE ACTIVE ===");
         System.out.println("Using hardcoded data for demonstration");
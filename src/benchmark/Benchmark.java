@@ -0,0 +1,70 @@
+package benchmark;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.function.Supplier;
+
+// A small JMH-style harness: a timed warmup so the JIT settles, then a timed
+// measurement. Results are sunk into a volatile field so the JIT cannot drop
+// the work, and System.out is swapped for a discarding stream while an
+// operation runs, so any direct console output is still built but not written.
+// Service and repository messages go through util.Logger and are level-gated.
+public class Benchmark {
+    private static final int CLOCK_CHECK_INTERVAL = 64;
+
+    private static volatile Object sink;
+
+    private final long warmupNanos;
+    private final long measureNanos;
+
+    public Benchmark(double warmupSeconds, double measureSeconds) {
+        this.warmupNanos = (long) (warmupSeconds * 1e9);
+        this.measureNanos = (long) (measureSeconds * 1e9);
+    }
+
+    public Result run(String name, Supplier<?> operation) {
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            loop(operation, warmupNanos);
+            long start = System.nanoTime();
+            long ops = loop(operation, measureNanos);
+            return new Result(name, ops, System.nanoTime() - start);
+        } finally {
+            System.setOut(console);
+        }
+    }
+
+    private static long loop(Supplier<?> operation, long durationNanos) {
+        long deadline = System.nanoTime() + durationNanos;
+        long ops = 0;
+        do {
+            for (int i = 0; i < CLOCK_CHECK_INTERVAL; i++) {
+                sink = operation.get();
+            }
+            ops += CLOCK_CHECK_INTERVAL;
+        } while (System.nanoTime() < deadline);
+        return ops;
+    }
+
+    public static class Result {
+        private final String name;
+        private final long operations;
+        private final long elapsedNanos;
+
+        Result(String name, long operations, long elapsedNanos) {
+            this.name = name;
+            this.operations = operations;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public String getName() { return name; }
+        public double getOpsPerSecond() { return operations * 1e9 / elapsedNanos; }
+        public double getNanosPerOp() { return (double) elapsedNanos / operations; }
+
+        @Override
+        public String toString() {
+            return String.format("%-48s %14.1f ops/s %14.1f ns/op", name, getOpsPerSecond(), getNanosPerOp());
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package benchmark;
+
+import model.Book;
+import model.Loan;
+import model.Member;
+import model.User;
+import repository.BookRepository;
+import repository.FileBookRepository;
+import repository.FileUserRepository;
+import repository.InMemoryLoanRepository;
+import repository.SQLiteBookRepository;
+import service.BookService;
+import service.FineCalculator;
+import service.LoanService;
+import service.UserService;
+import util.DatabaseManager;
+import util.LogLevel;
+import util.Logger;
+import util.PasswordHasher;
+import util.Validator;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+// Usage: BenchmarkSuite [--sizes 10000,100000] [--filter text] [--warmup s] [--seconds s] [--sqlite]
+//
+// Runs every benchmark once per catalog size. --filter keeps benchmarks whose
+// name contains the text. --sqlite also benchmarks SQLiteBookRepository on a
+// throwaway database under the temp directory, never the library's library.db.
+//
+// UserService.authenticate is labelled with the login cache state: after the
+// first pass it mostly hits the cache. Run with -Dlibrary.auth.cacheSeconds=0
+// for the full hashing cost; PasswordHasher.matches measures the hash alone.
+public class BenchmarkSuite {
+    private static final long SEED = 42;
+    private static final int USER_COUNT = 10_000;
+
+    private final Benchmark benchmark;
+    private final String filter;
+    private final List<Benchmark.Result> results = new ArrayList<>();
+
+    public BenchmarkSuite(Benchmark benchmark, String filter) {
+        this.benchmark = benchmark;
+        this.filter = filter;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (System.getProperty("library.log.level") == null) {
+            Logger.setDefaultLevel(LogLevel.WARN);
+        }
+        // Seeding registers every member, which at the production iteration count
+        // would take minutes; pass -Dlibrary.password.iterations to measure the real cost
+        if (System.getProperty("library.password.iterations") == null) {
+            System.setProperty("library.password.iterations", "1000");
+        }
+        int[] sizes = {10_000};
+        String filter = "";
+        double warmup = 2;
+        double seconds = 3;
+        boolean sqlite = false;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--sizes" -> sizes = Stream.of(args[++i].split(",")).mapToInt(Integer::parseInt).toArray();
+                case "--filter" -> filter = args[++i];
+                case "--warmup" -> warmup = Double.parseDouble(args[++i]);
+                case "--seconds" -> seconds = Double.parseDouble(args[++i]);
+                case "--sqlite" -> sqlite = true;
+                default -> {
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+                }
+            }
+        }
+
+        Path databaseDir = null;
+        if (sqlite) {
+            databaseDir = Files.createTempDirectory("library-bench-db");
+            System.setProperty("library.db.path", databaseDir.resolve("library.db").toString());
+        }
+
+        BenchmarkSuite suite = new BenchmarkSuite(new Benchmark(warmup, seconds), filter);
+        try {
+            suite.runStatelessBenchmarks();
+            for (int size : sizes) {
+                suite.runCatalogBenchmarks(size, sqlite);
+            }
+        } finally {
+            if (databaseDir != null) {
+                DatabaseManager.shutdown();
+                deleteRecursively(databaseDir);
+            }
+        }
+    }
+
+    private void runStatelessBenchmarks() {
+        System.out.println("== Validator and FineCalculator");
+        measure("Validator.isValidEmail", () -> Validator.isValidEmail("reader.name+tag@library.example"));
+        measure("Validator.isValidISBN", () -> Validator.isValidISBN("978-0-306-40615-7"));
+        measure("Validator.isStrongPassword", () -> Validator.isStrongPassword("Passw0rd!2024"));
+        measure("Validator.isValidPhone", () -> Validator.isValidPhone("(555) 123-4567"));
+
+        PasswordHasher hasher = User.getPasswordHasher();
+        String stored = hasher.hash(CatalogGenerator.password(0));
+        measure("PasswordHasher.matches (" + System.getProperty("library.password.iterations") + " iterations)",
+                () -> hasher.matches(CatalogGenerator.password(0), stored));
+
+        CatalogGenerator generator = new CatalogGenerator(SEED);
+        List<Loan> loans = generator.loans(generator.books(1_000), 100, 50);
+        FineCalculator calculator = new FineCalculator();
+        measure("FineCalculator.calculateFine", () ->
+                calculator.calculateFine(loans.get(ThreadLocalRandom.current().nextInt(loans.size()))));
+    }
+
+    private void runCatalogBenchmarks(int size, boolean sqlite) throws IOException {
+        System.out.println("== Catalog of " + size + " books");
+        CatalogGenerator generator = new CatalogGenerator(SEED);
+        List<Book> books = generator.books(size);
+        Path dir = Files.createTempDirectory("library-bench");
+
+        try {
+            BookRepository fileRepository = quietly(() -> new FileBookRepository(dir.resolve("books.txt").toString()));
+            fileRepository.saveAll(books);
+            runRepositoryBenchmarks("FileBookRepository", fileRepository, books, generator, size);
+
+            if (sqlite) {
+                DatabaseManager.initializeDatabase();
+                if (DatabaseManager.isAvailable()) {
+                    SQLiteBookRepository sqliteRepository = new SQLiteBookRepository();
+                    sqliteRepository.saveAll(books);
+                    runRepositoryBenchmarks("SQLiteBookRepository", sqliteRepository, books, generator, size);
+                    quietly(() -> books.stream().map(Book::getIsbn).filter(sqliteRepository::delete).count());
+                } else {
+                    System.out.println("(skipping SQLite: driver not on the classpath)");
+                }
+            }
+
+            InMemoryLoanRepository loanRepository = new InMemoryLoanRepository();
+            for (Loan loan : generator.loans(books, Math.max(1, size / 10), 5)) {
+                loanRepository.save(loan);
+            }
+            LoanService loanService = new LoanService(loanRepository);
+            measure("LoanService.getOverdueLoans [" + size + "]", loanService::getOverdueLoans);
+            Member member = CatalogGenerator.member(0);
+            measure("LoanService.getActiveLoans [" + size + "]", () -> loanService.getActiveLoans(member));
+
+            UserService userService = new UserService(
+                    quietly(() -> new FileUserRepository(dir.resolve("users.txt").toString())));
+            quietly(() -> {
+                for (int i = 0; i < USER_COUNT; i++) {
+                    userService.registerUser(CatalogGenerator.member(i));
+                }
+                return null;
+            });
+            String cache = userService.cachesLogins() ? "cached" : "uncached";
+            measure("UserService.authenticate (" + cache + ") [" + size + "]", () -> {
+                int n = ThreadLocalRandom.current().nextInt(USER_COUNT);
+                User user = userService.authenticate("member" + n, CatalogGenerator.password(n));
+                return user;
+            });
+        } finally {
+            deleteRecursively(dir);
+        }
+    }
+
+    private void runRepositoryBenchmarks(String label, BookRepository repository, List<Book> books,
+                                         CatalogGenerator generator, int size) {
+        String suffix = " [" + size + "]";
+        measure(label + ".findById" + suffix, () ->
+                repository.findById(randomBook(books).getIsbn()));
+        measure(label + ".update" + suffix, () ->
+                repository.update(randomBook(books)));
+        measure(label + ".delete+save" + suffix, () -> {
+            Book book = randomBook(books);
+            repository.delete(book.getIsbn());
+            repository.save(book);
+            return book;
+        });
+        measure(label + ".findPage(afterIsbn)" + suffix, () ->
+                repository.findPage(randomBook(books).getIsbn(), 50));
+
+        BookService bookService = new BookService(repository);
+        List<String> terms = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            terms.add(generator.searchTerm());
+        }
+        measure("BookService.searchBooks(" + label + ")" + suffix, () ->
+                bookService.searchBooks(terms.get(ThreadLocalRandom.current().nextInt(terms.size()))));
+    }
+
+    private void measure(String name, java.util.function.Supplier<?> operation) {
+        if (!name.contains(filter)) {
+            return;
+        }
+        Benchmark.Result result = benchmark.run(name, operation);
+        results.add(result);
+        System.out.println(result);
+    }
+
+    private static Book randomBook(List<Book> books) {
+        return books.get(ThreadLocalRandom.current().nextInt(books.size()));
+    }
+
+    // Fixture setup prints a line per record; keep the report readable
+    private static <T> T quietly(java.util.function.Supplier<T> action) {
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            return action.get();
+        } finally {
+            System.setOut(console);
+        }
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package benchmark;
+
+import model.Book;
+import model.EBook;
+import model.LoanStatus;
+import model.Loan;
+import model.Member;
+import model.PrintedBook;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Deterministic synthetic data for benchmarks and load tests. The same seed
+// always yields the same catalog, so runs on different machines compare.
+public class CatalogGenerator {
+    private static final String[] TITLE_WORDS = {
+        "Java", "Effective", "Patterns", "Clean", "Code", "Design", "Systems", "Data",
+        "History", "Modern", "Introduction", "Guide", "Advanced", "Principles", "Art",
+        "Science", "World", "Programming", "Networks", "Mathematics", "Garden", "Ocean",
+        "Kingdom", "Silent", "River", "Night", "Empire", "Journey", "Secret", "Light"
+    };
+    private static final String[] FIRST_NAMES = {
+        "Joshua", "Kathy", "Erich", "Robert", "Martin", "Ada", "Grace", "Alan", "Barbara",
+        "Donald", "Edsger", "Frances", "Leslie", "Margaret", "Niklaus", "Ken", "Dennis"
+    };
+    private static final String[] LAST_NAMES = {
+        "Bloch", "Sierra", "Gamma", "Martin", "Fowler", "Lovelace", "Hopper", "Turing",
+        "Liskov", "Knuth", "Dijkstra", "Allen", "Lamport", "Hamilton", "Wirth", "Thompson"
+    };
+    private static final String[] FORMATS = {"PDF", "EPUB", "MOBI"};
+    private static final String[] CONDITIONS = {"New", "Good", "Fair", "Poor"};
+
+    private final Random random;
+
+    public CatalogGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    // 978-prefixed ISBN-13 for sequence number n, with a valid check digit
+    public static String isbn13(long n) {
+        String body = "978" + String.format("%09d", n % 1_000_000_000L);
+        int sum = 0;
+        for (int i = 0; i < body.length(); i++) {
+            int digit = body.charAt(i) - '0';
+            sum += (i % 2 == 0) ? digit : digit * 3;
+        }
+        return body + (10 - sum % 10) % 10;
+    }
+
+    // Roughly 30% e-books, the rest printed
+    public Book book(long n) {
+        String isbn = isbn13(n);
+        String title = word() + " " + word() + (random.nextInt(4) == 0 ? " " + word() : "");
+        String author = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        int year = 1950 + random.nextInt(70);
+        int copies = 1 + random.nextInt(5);
+
+        if (random.nextInt(10) < 3) {
+            return new EBook(isbn, title, author, year, copies,
+                    1 + random.nextInt(50) / 10.0, FORMATS[random.nextInt(FORMATS.length)],
+                    "https://library.example/ebooks/" + isbn, random.nextBoolean());
+        }
+        return new PrintedBook(isbn, title, author, year, copies,
+                (char) ('A' + random.nextInt(26)) + "-" + (1 + random.nextInt(40)),
+                CONDITIONS[random.nextInt(CONDITIONS.length)], 1 + random.nextInt(3));
+    }
+
+    public List<Book> books(int count) {
+        List<Book> books = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            books.add(book(i));
+        }
+        return books;
+    }
+
+    // Passes UserService.registerUser validation, so it can be registered as is
+    public static Member member(int n) {
+        String id = String.format("M%07d", n);
+        String name = FIRST_NAMES[n % FIRST_NAMES.length] + " "
+                + LAST_NAMES[(n / FIRST_NAMES.length) % LAST_NAMES.length];
+        String phone = String.format("555-%03d-%04d", (n / 10_000) % 1_000, n % 10_000);
+        return new Member(id, name, "member" + n + "@library.example", phone,
+                "member" + n, password(n), id);
+    }
+
+    public static String password(int n) {
+        return "Passw0rd!" + n;
+    }
+
+    // Loan history for the given books: about one in overduePercent loans is overdue
+    // as of today, a third are already returned, and the rest are due in the future.
+    public List<Loan> loans(List<Book> books, int memberCount, int overduePercent) {
+        LocalDate today = LocalDate.now();
+        List<Loan> loans = new ArrayList<>(books.size());
+        for (int i = 0; i < books.size(); i++) {
+            Member member = member(random.nextInt(memberCount));
+            LocalDate borrowed = today.minusDays(random.nextInt(60));
+            LocalDate due;
+            LocalDate returned = null;
+            LoanStatus status = LoanStatus.ACTIVE;
+
+            int roll = random.nextInt(100);
+            if (roll < overduePercent) {
+                due = today.minusDays(1 + random.nextInt(30));
+            } else if (roll < overduePercent + 33) {
+                due = borrowed.plusDays(14);
+                returned = borrowed.plusDays(random.nextInt(14));
+                status = LoanStatus.RETURNED;
+            } else {
+                due = today.plusDays(1 + random.nextInt(14));
+            }
+            loans.add(new Loan("LN" + i, books.get(i), member, borrowed, due, returned, status));
+        }
+        return loans;
+    }
+
+    public String searchTerm() {
+        return word().toLowerCase();
+    }
+
+    private String word() {
+        return TITLE_WORDS[random.nextInt(TITLE_WORDS.length)];
+    }
+}
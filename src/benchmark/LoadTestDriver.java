@@ -0,0 +1,304 @@
+package benchmark;
+
+import metrics.LatencyHistogram;
+import model.Book;
+import model.Loan;
+import model.Member;
+import repository.BookRepository;
+import repository.FileBookRepository;
+import repository.FileUserRepository;
+import repository.InMemoryLoanRepository;
+import repository.SQLiteBookRepository;
+import service.BookService;
+import service.LoanService;
+import service.UserService;
+import util.DatabaseManager;
+import util.LogLevel;
+import util.Logger;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Usage: LoadTestDriver [--books n] [--members n] [--threads n] [--rate ops/s]
+//                       [--seconds n] [--sqlite]
+//
+// --sqlite runs the catalog on SQLite, in a throwaway database under the
+// temp directory, never the library's own library.db.
+//
+// Replays a circulation-desk mix (login, search, borrow, renew, return)
+// against the services from many threads and reports throughput and
+// p50/p99/p999 latency per operation.
+//
+// With --rate the load is open-loop: operations are scheduled at fixed
+// intervals and latency is measured from the scheduled start, so a stall
+// shows up as queueing delay instead of silently lowering the offered load.
+// Without --rate every thread runs flat out.
+public class LoadTestDriver {
+    private static final long SEED = 7;
+
+    private enum Operation {
+        LOGIN(20), SEARCH(40), BORROW(15), RENEW(10), RETURN(15);
+
+        final int weight;
+
+        Operation(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    private final UserService userService;
+    private final BookService bookService;
+    private final LoanService loanService;
+    private final List<Book> books;
+    private final int memberCount;
+    private final List<String> searchTerms = new ArrayList<>();
+    private final Queue<Loan> openLoans = new ConcurrentLinkedQueue<>();
+
+    private final Map<Operation, LatencyHistogram> latencies = new LinkedHashMap<>();
+    private final Map<Operation, AtomicLong> failures = new LinkedHashMap<>();
+
+    public LoadTestDriver(UserService userService, BookService bookService, LoanService loanService,
+                          List<Book> books, int memberCount) {
+        this.userService = userService;
+        this.bookService = bookService;
+        this.loanService = loanService;
+        this.books = books;
+        this.memberCount = memberCount;
+
+        CatalogGenerator generator = new CatalogGenerator(SEED);
+        for (int i = 0; i < 256; i++) {
+            searchTerms.add(generator.searchTerm());
+        }
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new LatencyHistogram());
+            failures.put(operation, new AtomicLong());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (System.getProperty("library.log.level") == null) {
+            Logger.setDefaultLevel(LogLevel.WARN);
+        }
+        // Seeding registers every member, which at the production iteration count
+        // would take minutes; pass -Dlibrary.password.iterations to measure the real cost
+        if (System.getProperty("library.password.iterations") == null) {
+            System.setProperty("library.password.iterations", "1000");
+        }
+        int bookCount = 100_000;
+        int memberCount = 10_000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        double rate = 0;
+        int seconds = 30;
+        boolean sqlite = false;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--books" -> bookCount = Integer.parseInt(args[++i]);
+                case "--members" -> memberCount = Integer.parseInt(args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--rate" -> rate = Double.parseDouble(args[++i]);
+                case "--seconds" -> seconds = Integer.parseInt(args[++i]);
+                case "--sqlite" -> sqlite = true;
+                default -> {
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+                }
+            }
+        }
+
+        Path dir = Files.createTempDirectory("library-load");
+        PrintStream console = System.out;
+        System.out.println("Generating " + bookCount + " books, " + memberCount + " members...");
+        // The services print a line per call; keep them off the console
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            CatalogGenerator generator = new CatalogGenerator(SEED);
+            List<Book> books = generator.books(bookCount);
+
+            BookRepository bookRepository;
+            if (sqlite) {
+                System.setProperty("library.db.path", dir.resolve("library.db").toString());
+                DatabaseManager.initializeDatabase();
+                if (!DatabaseManager.isAvailable()) {
+                    console.println("❌ SQLite driver not on the classpath");
+                    return;
+                }
+                bookRepository = new SQLiteBookRepository();
+            } else {
+                bookRepository = new FileBookRepository(dir.resolve("books.txt").toString());
+            }
+            bookRepository.saveAll(books);
+
+            UserService userService = new UserService(new FileUserRepository(dir.resolve("users.txt").toString()));
+            for (int i = 0; i < memberCount; i++) {
+                userService.registerUser(CatalogGenerator.member(i));
+            }
+
+            // History: one loan per book, a few percent already overdue
+            InMemoryLoanRepository loanRepository = new InMemoryLoanRepository();
+            for (Loan loan : generator.loans(books, memberCount, 3)) {
+                loanRepository.save(loan);
+            }
+
+            LoadTestDriver driver = new LoadTestDriver(userService, new BookService(bookRepository),
+                    new LoanService(loanRepository), books, memberCount);
+            console.println("Running " + threads + " threads for " + seconds + "s"
+                    + (rate > 0 ? " at " + rate + " ops/s" : " (closed loop)") + "...");
+            long elapsed = driver.run(threads, rate, seconds);
+            driver.report(console, elapsed);
+        } finally {
+            System.setOut(console);
+            DatabaseManager.shutdown();
+            try (var paths = Files.walk(dir)) {
+                paths.sorted(java.util.Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    // Returns the elapsed wall time in nanoseconds
+    public long run(int threads, double rate, int seconds) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+
+        if (rate > 0) {
+            long interval = (long) (1e9 / rate);
+            long scheduled = start;
+            while (scheduled < end) {
+                long intendedStart = scheduled;
+                workers.execute(() -> execute(pickOperation(), intendedStart));
+                scheduled += interval;
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+        } else {
+            for (int i = 0; i < threads; i++) {
+                workers.execute(() -> {
+                    while (System.nanoTime() < end) {
+                        execute(pickOperation(), System.nanoTime());
+                    }
+                });
+            }
+        }
+
+        workers.shutdown();
+        workers.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+        return System.nanoTime() - start;
+    }
+
+    private void execute(Operation operation, long intendedStart) {
+        boolean ok;
+        try {
+            ok = switch (operation) {
+                case LOGIN -> login();
+                case SEARCH -> search();
+                case BORROW -> borrow();
+                case RENEW -> renew();
+                case RETURN -> returnLoan();
+            };
+        } catch (RuntimeException e) {
+            ok = false;
+        }
+        latencies.get(operation).record(System.nanoTime() - intendedStart);
+        if (!ok) {
+            failures.get(operation).incrementAndGet();
+        }
+    }
+
+    private boolean login() {
+        int n = ThreadLocalRandom.current().nextInt(memberCount);
+        return userService.authenticate("member" + n, CatalogGenerator.password(n)) != null;
+    }
+
+    private boolean search() {
+        String term = searchTerms.get(ThreadLocalRandom.current().nextInt(searchTerms.size()));
+        bookService.searchBooks(term);
+        return true;
+    }
+
+    // LoanService checks availability first, so the copy is taken after the
+    // loan is written; a loan that then loses the race for the copy is closed.
+    private boolean borrow() {
+        String isbn = books.get(ThreadLocalRandom.current().nextInt(books.size())).getIsbn();
+        Member member = CatalogGenerator.member(ThreadLocalRandom.current().nextInt(memberCount));
+        Loan loan = loanService.borrowBook(member, bookService.findBook(isbn), 14);
+        if (loan == null) {
+            return false; // no copies left
+        }
+        if (!bookService.borrowBook(isbn)) {
+            loanService.returnBook(loan);
+            return false;
+        }
+        openLoans.add(loan);
+        return true;
+    }
+
+    private boolean renew() {
+        Loan loan = openLoans.poll();
+        if (loan == null) {
+            return false;
+        }
+        boolean renewed = loanService.renewLoan(loan, 7);
+        openLoans.add(loan);
+        return renewed;
+    }
+
+    private boolean returnLoan() {
+        Loan loan = openLoans.poll();
+        if (loan == null) {
+            return false;
+        }
+        loanService.returnBook(loan);
+        return bookService.returnBook(loan.getBook().getIsbn());
+    }
+
+    private static Operation pickOperation() {
+        int roll = ThreadLocalRandom.current().nextInt(100);
+        for (Operation operation : Operation.values()) {
+            roll -= operation.weight;
+            if (roll < 0) {
+                return operation;
+            }
+        }
+        return Operation.SEARCH;
+    }
+
+    public void report(PrintStream out, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        long totalOps = 0;
+        out.printf("%-8s %10s %10s %10s %10s %10s %10s %8s%n",
+                "op", "count", "ops/s", "p50 us", "p99 us", "p999 us", "max us", "failed");
+        for (Map.Entry<Operation, LatencyHistogram> entry : latencies.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            totalOps += histogram.getCount();
+            out.printf("%-8s %10d %10.0f %10.1f %10.1f %10.1f %10.1f %8d%n",
+                    entry.getKey().name().toLowerCase(), histogram.getCount(), histogram.getCount() / seconds,
+                    histogram.percentile(50) / 1e3, histogram.percentile(99) / 1e3,
+                    histogram.percentile(99.9) / 1e3, histogram.getMax() / 1e3,
+                    failures.get(entry.getKey()).get());
+        }
+        out.printf("total    %10d %10.0f ops/s over %.1fs%n", totalOps, totalOps / seconds, seconds);
+        if (userService.cachesLogins()) {
+            // Repeat logins hit the verifier's cache, so they are not the hashing cost
+            out.println("login: cached; run with -Dlibrary.auth.cacheSeconds=0 to hash every attempt");
+        } else {
+            out.println("login: uncached, every attempt hashes");
+        }
+    }
+}
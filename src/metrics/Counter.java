@@ -0,0 +1,19 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class Counter {
+    private final LongAdder count = new LongAdder();
+
+    public void increment() {
+        count.increment();
+    }
+
+    public void add(long amount) {
+        count.add(amount);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+}
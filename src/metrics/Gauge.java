@@ -0,0 +1,7 @@
+package metrics;
+
+// Read when a snapshot is taken, so it should be cheap and never block
+@FunctionalInterface
+public interface Gauge {
+    double getValue();
+}
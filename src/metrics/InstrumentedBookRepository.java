@@ -0,0 +1,192 @@
+package metrics;
+
+import model.Book;
+import repository.BookRepository;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Times every call on the wrapped repository under "repository.books.<method>".
+// The default methods are forwarded too, so the delegate's own batched versions
+// are the ones being measured.
+public class InstrumentedBookRepository implements BookRepository {
+    private final BookRepository delegate;
+    private final Counter errors;
+    private final LatencyHistogram save;
+    private final LatencyHistogram saveAll;
+    private final LatencyHistogram findById;
+    private final LatencyHistogram findByIds;
+    private final LatencyHistogram findExisting;
+    private final LatencyHistogram findAll;
+    private final LatencyHistogram findPage;
+    private final LatencyHistogram findAvailable;
+    private final LatencyHistogram findByTitle;
+    private final LatencyHistogram findByAuthor;
+    private final LatencyHistogram search;
+    private final LatencyHistogram count;
+    private final LatencyHistogram update;
+    private final LatencyHistogram delete;
+    private final LatencyHistogram reserveCopy;
+    private final LatencyHistogram releaseCopy;
+    private final LatencyHistogram adjustCopies;
+    private final LatencyHistogram forEach;
+
+    public InstrumentedBookRepository(BookRepository delegate) {
+        this(delegate, MetricsRegistry.getDefault());
+    }
+
+    public InstrumentedBookRepository(BookRepository delegate, MetricsRegistry registry) {
+        this.delegate = delegate;
+        String prefix = "repository.books.";
+        this.errors = registry.counter(prefix + "errors");
+        this.save = registry.histogram(prefix + "save");
+        this.saveAll = registry.histogram(prefix + "saveAll");
+        this.findById = registry.histogram(prefix + "findById");
+        this.findByIds = registry.histogram(prefix + "findByIds");
+        this.findExisting = registry.histogram(prefix + "findExistingIsbns");
+        this.findAll = registry.histogram(prefix + "findAll");
+        this.findPage = registry.histogram(prefix + "findPage");
+        this.findAvailable = registry.histogram(prefix + "findAvailable");
+        this.findByTitle = registry.histogram(prefix + "findByTitle");
+        this.findByAuthor = registry.histogram(prefix + "findByAuthor");
+        this.search = registry.histogram(prefix + "search");
+        this.count = registry.histogram(prefix + "count");
+        this.update = registry.histogram(prefix + "update");
+        this.delete = registry.histogram(prefix + "delete");
+        this.reserveCopy = registry.histogram(prefix + "tryReserveCopy");
+        this.releaseCopy = registry.histogram(prefix + "releaseCopy");
+        this.adjustCopies = registry.histogram(prefix + "adjustCopies");
+        this.forEach = registry.histogram(prefix + "forEach");
+    }
+
+    @Override
+    public void save(Book book) {
+        timed(save, () -> {
+            delegate.save(book);
+            return null;
+        });
+    }
+
+    @Override
+    public int saveAll(List<Book> books) {
+        return timed(saveAll, () -> delegate.saveAll(books));
+    }
+
+    @Override
+    public Book findById(String isbn) {
+        return timed(findById, () -> delegate.findById(isbn));
+    }
+
+    @Override
+    public List<Book> findByIds(List<String> isbns) {
+        return timed(findByIds, () -> delegate.findByIds(isbns));
+    }
+
+    @Override
+    public Set<String> findExistingIsbns(Collection<String> isbns) {
+        return timed(findExisting, () -> delegate.findExistingIsbns(isbns));
+    }
+
+    @Override
+    public List<Book> findAll() {
+        return timed(findAll, delegate::findAll);
+    }
+
+    @Override
+    public int count() {
+        return timed(count, delegate::count);
+    }
+
+    @Override
+    public List<Book> findPage(int offset, int limit) {
+        return timed(findPage, () -> delegate.findPage(offset, limit));
+    }
+
+    @Override
+    public List<Book> findPage(String afterIsbn, int limit) {
+        return timed(findPage, () -> delegate.findPage(afterIsbn, limit));
+    }
+
+    @Override
+    public List<Book> findAvailable() {
+        return timed(findAvailable, delegate::findAvailable);
+    }
+
+    @Override
+    public List<Book> findByTitle(String title) {
+        return timed(findByTitle, () -> delegate.findByTitle(title));
+    }
+
+    @Override
+    public List<Book> findByAuthor(String author) {
+        return timed(findByAuthor, () -> delegate.findByAuthor(author));
+    }
+
+    @Override
+    public List<Book> search(String query) {
+        return timed(search, () -> delegate.search(query));
+    }
+
+    @Override
+    public List<Book> search(String query, int limit) {
+        return timed(search, () -> delegate.search(query, limit));
+    }
+
+    @Override
+    public boolean supportsFullTextSearch() {
+        return delegate.supportsFullTextSearch();
+    }
+
+    @Override
+    public long modificationCount() {
+        return delegate.modificationCount();
+    }
+
+    @Override
+    public boolean update(Book book) {
+        return timed(update, () -> delegate.update(book));
+    }
+
+    @Override
+    public boolean delete(String isbn) {
+        return timed(delete, () -> delegate.delete(isbn));
+    }
+
+    @Override
+    public boolean tryReserveCopy(String isbn) {
+        return timed(reserveCopy, () -> delegate.tryReserveCopy(isbn));
+    }
+
+    @Override
+    public boolean releaseCopy(String isbn) {
+        return timed(releaseCopy, () -> delegate.releaseCopy(isbn));
+    }
+
+    @Override
+    public boolean adjustCopies(String isbn, int delta) {
+        return timed(adjustCopies, () -> delegate.adjustCopies(isbn, delta));
+    }
+
+    // Includes the time spent in the action, which is what an export actually costs
+    @Override
+    public void forEach(Consumer<Book> action) {
+        timed(forEach, () -> {
+            delegate.forEach(action);
+            return null;
+        });
+    }
+
+    private <T> T timed(LatencyHistogram histogram, Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            errors.increment();
+            throw e;
+        } finally {
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+}
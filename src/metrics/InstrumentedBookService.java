@@ -0,0 +1,86 @@
+package metrics;
+
+import model.Book;
+import repository.BookRepository;
+import service.BookService;
+import java.util.List;
+
+// BookService that times the calls the desk and catalog screens make most,
+// and counts the ones that were turned down
+public class InstrumentedBookService extends BookService {
+    private final LatencyHistogram search;
+    private final LatencyHistogram searchByTitle;
+    private final LatencyHistogram searchByAuthor;
+    private final LatencyHistogram available;
+    private final LatencyHistogram add;
+    private final LatencyHistogram borrow;
+    private final LatencyHistogram giveBack;
+    private final Counter addRejected;
+    private final Counter borrowFailed;
+    private final Counter returnFailed;
+
+    public InstrumentedBookService(BookRepository repository) {
+        this(repository, MetricsRegistry.getDefault());
+    }
+
+    public InstrumentedBookService(BookRepository repository, MetricsRegistry registry) {
+        super(repository);
+        this.search = registry.histogram("service.books.search");
+        this.searchByTitle = registry.histogram("service.books.searchByTitle");
+        this.searchByAuthor = registry.histogram("service.books.searchByAuthor");
+        this.available = registry.histogram("service.books.available");
+        this.add = registry.histogram("service.books.add");
+        this.borrow = registry.histogram("service.books.borrow");
+        this.giveBack = registry.histogram("service.books.return");
+        this.addRejected = registry.counter("service.books.add.rejected");
+        this.borrowFailed = registry.counter("service.books.borrow.failed");
+        this.returnFailed = registry.counter("service.books.return.failed");
+    }
+
+    @Override
+    public List<Book> searchBooks(String query) {
+        return search.time(() -> super.searchBooks(query));
+    }
+
+    @Override
+    public List<Book> searchByTitle(String title) {
+        return searchByTitle.time(() -> super.searchByTitle(title));
+    }
+
+    @Override
+    public List<Book> searchByAuthor(String author) {
+        return searchByAuthor.time(() -> super.searchByAuthor(author));
+    }
+
+    @Override
+    public List<Book> getAvailableBooks() {
+        return available.time(super::getAvailableBooks);
+    }
+
+    @Override
+    public boolean addBook(Book book) {
+        boolean added = add.time(() -> super.addBook(book));
+        if (!added) {
+            addRejected.increment();
+        }
+        return added;
+    }
+
+    @Override
+    public boolean borrowBook(String isbn) {
+        boolean borrowed = borrow.time(() -> super.borrowBook(isbn));
+        if (!borrowed) {
+            borrowFailed.increment();
+        }
+        return borrowed;
+    }
+
+    @Override
+    public boolean returnBook(String isbn) {
+        boolean returned = giveBack.time(() -> super.returnBook(isbn));
+        if (!returned) {
+            returnFailed.increment();
+        }
+        return returned;
+    }
+}
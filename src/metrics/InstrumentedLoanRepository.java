@@ -0,0 +1,87 @@
+package metrics;
+
+import model.Loan;
+import repository.LoanRepository;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+// Times every call on the wrapped repository under "repository.loans.<method>"
+public class InstrumentedLoanRepository implements LoanRepository {
+    private final LoanRepository delegate;
+    private final Counter errors;
+    private final LatencyHistogram save;
+    private final LatencyHistogram findById;
+    private final LatencyHistogram findAll;
+    private final LatencyHistogram delete;
+    private final LatencyHistogram update;
+    private final LatencyHistogram findActiveByMember;
+    private final LatencyHistogram findOverdue;
+
+    public InstrumentedLoanRepository(LoanRepository delegate) {
+        this(delegate, MetricsRegistry.getDefault());
+    }
+
+    public InstrumentedLoanRepository(LoanRepository delegate, MetricsRegistry registry) {
+        this.delegate = delegate;
+        String prefix = "repository.loans.";
+        this.errors = registry.counter(prefix + "errors");
+        this.save = registry.histogram(prefix + "save");
+        this.findById = registry.histogram(prefix + "findById");
+        this.findAll = registry.histogram(prefix + "findAll");
+        this.delete = registry.histogram(prefix + "delete");
+        this.update = registry.histogram(prefix + "update");
+        this.findActiveByMember = registry.histogram(prefix + "findActiveByMember");
+        this.findOverdue = registry.histogram(prefix + "findOverdue");
+    }
+
+    @Override
+    public void save(Loan loan) {
+        timed(save, () -> {
+            delegate.save(loan);
+            return null;
+        });
+    }
+
+    @Override
+    public Loan findById(String loanId) {
+        return timed(findById, () -> delegate.findById(loanId));
+    }
+
+    @Override
+    public List<Loan> findAll() {
+        return timed(findAll, delegate::findAll);
+    }
+
+    @Override
+    public boolean delete(String loanId) {
+        return timed(delete, () -> delegate.delete(loanId));
+    }
+
+    @Override
+    public boolean update(Loan loan) {
+        return timed(update, () -> delegate.update(loan));
+    }
+
+    @Override
+    public List<Loan> findActiveByMember(String memberId) {
+        return timed(findActiveByMember, () -> delegate.findActiveByMember(memberId));
+    }
+
+    @Override
+    public List<Loan> findOverdue(LocalDate asOf) {
+        return timed(findOverdue, () -> delegate.findOverdue(asOf));
+    }
+
+    private <T> T timed(LatencyHistogram histogram, Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            errors.increment();
+            throw e;
+        } finally {
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package metrics;
+
+import model.Book;
+import model.Loan;
+import model.Member;
+import repository.LoanRepository;
+import service.LoanService;
+import java.util.List;
+
+// LoanService that times the circulation desk operations and counts refusals
+public class InstrumentedLoanService extends LoanService {
+    private final LatencyHistogram borrow;
+    private final LatencyHistogram giveBack;
+    private final LatencyHistogram renew;
+    private final LatencyHistogram overdue;
+    private final Counter borrowRefused;
+    private final Counter renewRefused;
+
+    public InstrumentedLoanService(LoanRepository repository) {
+        this(repository, MetricsRegistry.getDefault());
+    }
+
+    public InstrumentedLoanService(LoanRepository repository, MetricsRegistry registry) {
+        super(repository);
+        this.borrow = registry.histogram("service.loans.borrow");
+        this.giveBack = registry.histogram("service.loans.return");
+        this.renew = registry.histogram("service.loans.renew");
+        this.overdue = registry.histogram("service.loans.overdue");
+        this.borrowRefused = registry.counter("service.loans.borrow.refused");
+        this.renewRefused = registry.counter("service.loans.renew.refused");
+    }
+
+    @Override
+    public Loan borrowBook(Member member, Book book, int loanPeriodDays) {
+        Loan loan = borrow.time(() -> super.borrowBook(member, book, loanPeriodDays));
+        if (loan == null) {
+            borrowRefused.increment();
+        }
+        return loan;
+    }
+
+    @Override
+    public double returnBook(Loan loan) {
+        return giveBack.time(() -> super.returnBook(loan));
+    }
+
+    @Override
+    public boolean renewLoan(Loan loan, int additionalDays) {
+        boolean renewed = renew.time(() -> super.renewLoan(loan, additionalDays));
+        if (!renewed) {
+            renewRefused.increment();
+        }
+        return renewed;
+    }
+
+    @Override
+    public List<Loan> getOverdueLoans() {
+        return overdue.time(super::getOverdueLoans);
+    }
+}
@@ -0,0 +1,100 @@
+package metrics;
+
+import model.User;
+import repository.UserRepository;
+import java.util.List;
+import java.util.function.Supplier;
+
+// Times every call on the wrapped repository under "repository.users.<method>"
+public class InstrumentedUserRepository implements UserRepository {
+    private final UserRepository delegate;
+    private final Counter errors;
+    private final LatencyHistogram save;
+    private final LatencyHistogram findById;
+    private final LatencyHistogram findByUsername;
+    private final LatencyHistogram findByEmail;
+    private final LatencyHistogram findAll;
+    private final LatencyHistogram findPage;
+    private final LatencyHistogram count;
+    private final LatencyHistogram update;
+    private final LatencyHistogram delete;
+
+    public InstrumentedUserRepository(UserRepository delegate) {
+        this(delegate, MetricsRegistry.getDefault());
+    }
+
+    public InstrumentedUserRepository(UserRepository delegate, MetricsRegistry registry) {
+        this.delegate = delegate;
+        String prefix = "repository.users.";
+        this.errors = registry.counter(prefix + "errors");
+        this.save = registry.histogram(prefix + "save");
+        this.findById = registry.histogram(prefix + "findById");
+        this.findByUsername = registry.histogram(prefix + "findByUsername");
+        this.findByEmail = registry.histogram(prefix + "findByEmail");
+        this.findAll = registry.histogram(prefix + "findAll");
+        this.findPage = registry.histogram(prefix + "findPage");
+        this.count = registry.histogram(prefix + "count");
+        this.update = registry.histogram(prefix + "update");
+        this.delete = registry.histogram(prefix + "delete");
+    }
+
+    @Override
+    public void save(User user) {
+        timed(save, () -> {
+            delegate.save(user);
+            return null;
+        });
+    }
+
+    @Override
+    public User findById(String id) {
+        return timed(findById, () -> delegate.findById(id));
+    }
+
+    @Override
+    public User findByUsername(String username) {
+        return timed(findByUsername, () -> delegate.findByUsername(username));
+    }
+
+    @Override
+    public User findByEmail(String email) {
+        return timed(findByEmail, () -> delegate.findByEmail(email));
+    }
+
+    @Override
+    public List<User> findAll() {
+        return timed(findAll, delegate::findAll);
+    }
+
+    @Override
+    public boolean delete(String id) {
+        return timed(delete, () -> delegate.delete(id));
+    }
+
+    @Override
+    public boolean update(User user) {
+        return timed(update, () -> delegate.update(user));
+    }
+
+    @Override
+    public int count() {
+        return timed(count, delegate::count);
+    }
+
+    @Override
+    public List<User> findPage(int offset, int limit) {
+        return timed(findPage, () -> delegate.findPage(offset, limit));
+    }
+
+    private <T> T timed(LatencyHistogram histogram, Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            errors.increment();
+            throw e;
+        } finally {
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+}
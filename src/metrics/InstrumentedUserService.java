@@ -0,0 +1,50 @@
+package metrics;
+
+import model.User;
+import repository.UserRepository;
+import service.UserService;
+
+// UserService that times logins and registrations and counts failed logins
+public class InstrumentedUserService extends UserService {
+    private final LatencyHistogram authenticate;
+    private final LatencyHistogram register;
+    private final LatencyHistogram changePassword;
+    private final Counter authenticateFailed;
+    private final Counter registerRejected;
+
+    public InstrumentedUserService(UserRepository repository) {
+        this(repository, MetricsRegistry.getDefault());
+    }
+
+    public InstrumentedUserService(UserRepository repository, MetricsRegistry registry) {
+        super(repository);
+        this.authenticate = registry.histogram("service.users.authenticate");
+        this.register = registry.histogram("service.users.register");
+        this.changePassword = registry.histogram("service.users.changePassword");
+        this.authenticateFailed = registry.counter("service.users.authenticate.failed");
+        this.registerRejected = registry.counter("service.users.register.rejected");
+    }
+
+    @Override
+    public User authenticate(String username, String password) {
+        User user = authenticate.time(() -> super.authenticate(username, password));
+        if (user == null) {
+            authenticateFailed.increment();
+        }
+        return user;
+    }
+
+    @Override
+    public boolean registerUser(User user) {
+        boolean registered = register.time(() -> super.registerUser(user));
+        if (!registered) {
+            registerRejected.increment();
+        }
+        return registered;
+    }
+
+    @Override
+    public boolean changePassword(String username, String oldPassword, String newPassword) {
+        return changePassword.time(() -> super.changePassword(username, oldPassword, newPassword));
+    }
+}
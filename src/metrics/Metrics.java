@@ -0,0 +1,74 @@
+package metrics;
+
+import util.ConnectionPool;
+import util.DatabaseManager;
+import util.Logger;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Paths;
+import java.util.function.ToDoubleFunction;
+
+// Starts the exporters on the default registry. Both are off unless asked for:
+//   -Dlibrary.metrics.port=9464                  serve /metrics on loopback
+//   -Dlibrary.metrics.file=logs/metrics.prom     write a snapshot every
+//   -Dlibrary.metrics.interval=60                interval seconds (default 60)
+public final class Metrics {
+    private static final Logger LOG = Logger.get("metrics");
+    private static final long MAX_FILE_BYTES = 10L * 1024 * 1024;
+    private static final int MAX_ROLLED_FILES = 5;
+
+    private static boolean started;
+
+    private Metrics() {
+    }
+
+    public static synchronized void startFromSystemProperties() {
+        if (started) {
+            return;
+        }
+        started = true;
+
+        MetricsRegistry registry = MetricsRegistry.getDefault();
+        registerRuntimeGauges(registry);
+
+        String port = System.getProperty("library.metrics.port");
+        if (port != null) {
+            try {
+                MetricsHttpServer server = new MetricsHttpServer(registry, Integer.parseInt(port.trim()));
+                server.start();
+                LOG.info("✅ Metrics available at http://127.0.0.1:" + server.getPort() + "/metrics");
+            } catch (IOException | NumberFormatException e) {
+                LOG.error("❌ Could not start metrics endpoint: " + e.getMessage());
+            }
+        }
+
+        String file = System.getProperty("library.metrics.file");
+        if (file != null) {
+            long interval = Long.getLong("library.metrics.interval", 60);
+            RollingFileExporter exporter = new RollingFileExporter(registry, Paths.get(file),
+                    Math.max(1, interval), MAX_FILE_BYTES, MAX_ROLLED_FILES);
+            exporter.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(exporter::stop, "metrics-final-export"));
+            LOG.info("✅ Writing metrics to " + file + " every " + interval + "s");
+        }
+    }
+
+    public static void registerRuntimeGauges(MetricsRegistry registry) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        registry.gauge("jvm.heap.used.bytes", () -> memory.getHeapMemoryUsage().getUsed());
+        registry.gauge("jvm.heap.committed.bytes", () -> memory.getHeapMemoryUsage().getCommitted());
+        registry.gauge("jvm.threads", () -> ManagementFactory.getThreadMXBean().getThreadCount());
+
+        registry.gauge("db.pool.active", () -> poolValue(ConnectionPool::getActiveCount));
+        registry.gauge("db.pool.idle", () -> poolValue(ConnectionPool::getIdleCount));
+        registry.gauge("db.pool.borrows", () -> poolValue(ConnectionPool::getBorrowCount));
+        registry.gauge("db.pool.wait.avg.ms", () -> poolValue(ConnectionPool::getAverageWaitMillis));
+        registry.gauge("db.pool.wait.max.ms", () -> poolValue(ConnectionPool::getMaxWaitMillis));
+    }
+
+    private static double poolValue(ToDoubleFunction<ConnectionPool> stat) {
+        ConnectionPool pool = DatabaseManager.getPool();
+        return pool == null ? 0 : stat.applyAsDouble(pool);
+    }
+}
@@ -0,0 +1,92 @@
+package metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Named counters, gauges and latency histograms. Names are dotted, e.g.
+// "service.books.search"; lookups after the first are a single map read, and
+// recording never takes a lock. toText() renders everything in the Prometheus
+// text format, with histograms as summaries in seconds.
+public class MetricsRegistry {
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Gauge> gauges = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, n -> new Counter());
+    }
+
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, n -> new LatencyHistogram());
+    }
+
+    // Replaces any gauge already registered under the name
+    public void gauge(String name, Gauge gauge) {
+        gauges.put(name, gauge);
+    }
+
+    public String toText() {
+        StringBuilder out = new StringBuilder(4096);
+
+        for (Map.Entry<String, Counter> entry : new ConcurrentSkipListMap<>(counters).entrySet()) {
+            String name = exportName(entry.getKey()) + "_total";
+            out.append("# TYPE ").append(name).append(" counter\n");
+            out.append(name).append(' ').append(entry.getValue().getCount()).append('\n');
+        }
+
+        for (Map.Entry<String, Gauge> entry : new ConcurrentSkipListMap<>(gauges).entrySet()) {
+            String name = exportName(entry.getKey());
+            double value;
+            try {
+                value = entry.getValue().getValue();
+            } catch (RuntimeException e) {
+                continue;
+            }
+            out.append("# TYPE ").append(name).append(" gauge\n");
+            out.append(name).append(' ').append(format(value)).append('\n');
+        }
+
+        for (Map.Entry<String, LatencyHistogram> entry : new ConcurrentSkipListMap<>(histograms).entrySet()) {
+            String name = exportName(entry.getKey()) + "_seconds";
+            LatencyHistogram histogram = entry.getValue();
+            out.append("# TYPE ").append(name).append(" summary\n");
+            for (double quantile : QUANTILES) {
+                out.append(name).append("{quantile=\"").append(quantile).append("\"} ")
+                        .append(format(seconds(histogram.percentile(quantile * 100)))).append('\n');
+            }
+            out.append(name).append("_sum ").append(format(seconds(histogram.getSum()))).append('\n');
+            out.append(name).append("_count ").append(histogram.getCount()).append('\n');
+            out.append("# TYPE ").append(name).append("_max gauge\n");
+            out.append(name).append("_max ").append(format(seconds(histogram.getMax()))).append('\n');
+        }
+        return out.toString();
+    }
+
+    private static String exportName(String name) {
+        StringBuilder exported = new StringBuilder("library_");
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            exported.append(Character.isLetterOrDigit(c) ? c : '_');
+        }
+        return exported.toString();
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1e9;
+    }
+
+    private static String format(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+}
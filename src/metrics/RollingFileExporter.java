@@ -0,0 +1,94 @@
+package metrics;
+
+import util.Logger;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Appends a timestamped snapshot of the registry to a file at a fixed interval.
+// Once the file passes maxBytes it is rolled to file.1, file.1 to file.2 and so
+// on, keeping at most maxFiles old files.
+public class RollingFileExporter {
+    private static final Logger LOG = Logger.get("metrics");
+
+    private final MetricsRegistry registry;
+    private final Path file;
+    private final long intervalSeconds;
+    private final long maxBytes;
+    private final int maxFiles;
+    private ScheduledExecutorService scheduler;
+
+    public RollingFileExporter(MetricsRegistry registry, Path file, long intervalSeconds,
+                               long maxBytes, int maxFiles) {
+        this.registry = registry;
+        this.file = file;
+        this.intervalSeconds = intervalSeconds;
+        this.maxBytes = maxBytes;
+        this.maxFiles = maxFiles;
+    }
+
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "metrics-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::export, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    // Stops the schedule and writes one last snapshot
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+        export();
+    }
+
+    public synchronized void export() {
+        String snapshot = "# snapshot " + Instant.now() + "\n" + registry.toText() + "\n";
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            if (Files.exists(file) && Files.size(file) >= maxBytes) {
+                roll();
+            }
+            Files.writeString(file, snapshot, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            LOG.error("❌ Error writing metrics to " + file + ": " + e.getMessage());
+        }
+    }
+
+    private void roll() throws IOException {
+        Files.deleteIfExists(rolled(maxFiles));
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            Path from = rolled(i);
+            if (Files.exists(from)) {
+                Files.move(from, rolled(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxFiles > 0) {
+            Files.move(file, rolled(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.delete(file);
+        }
+    }
+
+    private Path rolled(int generation) {
+        return file.resolveSibling(file.getFileName() + "." + generation);
+    }
+}
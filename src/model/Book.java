@@ -1,18 +1,22 @@
 package model;
 
+import util.Validator;
 import java.time.Year;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public abstract class Book implements BookSearchable, BookBorrowable {
     private String isbn;
     private String title;
     private String author;
     private int publicationYear;
-    private boolean available;
-    private int copies;
+    // Cleared only when a book is withdrawn; copies on loan are tracked by the count
+    private volatile boolean available;
+    // Borrow and return race across terminals, so the count is only changed by CAS
+    private final AtomicInteger copies = new AtomicInteger();
 
     public Book(String isbn, String title, String author, int publicationYear, int copies) {
         setIsbn(isbn);
@@ -20,7 +24,7 @@ public abstract class Book implements BookSearchable, BookBorrowable {
         setAuthor(author);
         setPublicationYear(publicationYear);
         setCopies(copies);
-        this.available = (copies > 0);
+        this.available = true;
     }
 
 
@@ -30,7 +34,7 @@ public abstract class Book implements BookSearchable, BookBorrowable {
         profile.put("title", title);
         profile.put("author", author);
         profile.put("publication_year", publicationYear);
-        profile.put("copies", copies);
+        profile.put("copies", copies.get());
         profile.put("available", isAvailable() ? 1 : 0); // SQLite uses integers for booleans
         profile.put("book_type", getType()); // "E-Book" or "Printed Book"
 
@@ -74,28 +78,12 @@ public abstract class Book implements BookSearchable, BookBorrowable {
 
     public String getDetails() {
         return String.format("\"%s\" by %s (%d) - ISBN: %s [%d copy/copies, %s]",
-                title, author, publicationYear, isbn, copies,
+                title, author, publicationYear, isbn, copies.get(),
                 isAvailable() ? "Available" : "Checked Out");
     }
 
     public boolean validateISBN() {
-        String cleanISBN = isbn.replaceAll("[\\s-]", "");
-
-        if (cleanISBN.length() != 10 && cleanISBN.length() != 13) {
-            return false;
-        }
-
-        if (cleanISBN.length() == 10) {
-            if (!cleanISBN.matches("[0-9]{9}[0-9X]")) {
-                return false;
-            }
-        } else {
-            if (!cleanISBN.matches("[0-9]{13}")) {
-                return false;
-            }
-        }
-
-        return true;
+        return Validator.isValidISBN(isbn);
     }
 
 
@@ -104,22 +92,41 @@ public abstract class Book implements BookSearchable, BookBorrowable {
     }
 
     public boolean isAvailable() {
-        return available && copies > 0;
+        return available && copies.get() > 0;
     }
 
+    public boolean isWithdrawn() {
+        return !available;
+    }
 
+
+    // isAvailable() already checks the count, so borrowing leaves the flag
+    // alone rather than racing a concurrent return that sets it back to true
     public boolean borrowCopy() {
-        if (copies > 0) {
-            copies--;
-            this.available = (copies > 0);
-            return true;
-        }
-        return false;
+        int current;
+        do {
+            current = copies.get();
+            if (current <= 0) {
+                return false;
+            }
+        } while (!copies.compareAndSet(current, current - 1));
+        return true;
     }
 
     public boolean returnCopy() {
-        copies++;
-        this.available = true;
+        copies.incrementAndGet();
+        return true;
+    }
+
+    // Stock change by a librarian; refused if it would leave fewer than zero copies
+    public boolean adjustCopies(int delta) {
+        int current;
+        do {
+            current = copies.get();
+            if (current + delta < 0) {
+                return false;
+            }
+        } while (!copies.compareAndSet(current, current + delta));
         return true;
     }
 
@@ -242,15 +249,14 @@ public abstract class Book implements BookSearchable, BookBorrowable {
     }
 
     public int getCopies() {
-        return copies;
+        return copies.get();
     }
 
     public void setCopies(int copies) {
         if (copies < 0) {
             throw new IllegalArgumentException("Copies cannot be negative: " + copies);
         }
-        this.copies = copies;
-        this.available = (copies > 0); // Update availability
+        this.copies.set(copies);
     }
 
 
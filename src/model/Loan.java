@@ -9,6 +9,7 @@ public class Loan {
     private LocalDate dueDate;
     private LocalDate returnDate;
     private LoanStatus status;
+    private double fineAmount;
     private Book book;
     private Member member;
 
@@ -20,8 +21,18 @@ public class Loan {
         this.dueDate = borrowDate.plusDays(loanPeriodDays);
         this.status = LoanStatus.ACTIVE;
         this.returnDate = null;
+    }
 
-        book.setAvailable(false);
+    // Rebuilds a stored loan without touching the book's availability
+    public Loan(String loanId, Book book, Member member, LocalDate borrowDate,
+                LocalDate dueDate, LocalDate returnDate, LoanStatus status) {
+        this.loanId = loanId;
+        this.book = book;
+        this.member = member;
+        this.borrowDate = borrowDate;
+        this.dueDate = dueDate;
+        this.returnDate = returnDate;
+        this.status = status;
     }
 
 
@@ -33,7 +44,6 @@ public class Loan {
         if (status == LoanStatus.ACTIVE) {
             status = LoanStatus.RETURNED;
             returnDate = LocalDate.now();
-            book.setAvailable(true);
         }
     }
 
@@ -64,6 +74,9 @@ public class Loan {
     public LocalDate getReturnDate() { return returnDate; }
     public void setReturnDate(LocalDate returnDate) { this.returnDate = returnDate; }
 
+    public double getFineAmount() { return fineAmount; }
+    public void setFineAmount(double fineAmount) { this.fineAmount = fineAmount; }
+
     public LoanStatus getStatus() { return status; }
     public void setStatus(LoanStatus status) { this.status = status; }
 
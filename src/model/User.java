@@ -2,12 +2,14 @@ package model;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.security.SecureRandom;
-import java.util.Base64;
+import util.Logger;
+import util.PasswordHasher;
+import util.Pbkdf2PasswordHasher;
 
 public abstract class User {
+    private static final Logger AUTH_LOG = Logger.get("auth");
+    private static volatile PasswordHasher passwordHasher = new Pbkdf2PasswordHasher();
+
     private String id;
     private String name;
     private String email;
@@ -30,85 +32,29 @@ public abstract class User {
     }
 
     public boolean login(String passwordAttempt) {
-        System.out.println("[LOGIN DEBUG] User: " + username);
-        System.out.println("[LOGIN DEBUG] Attempt: '" + passwordAttempt + "'");
-        System.out.println("[LOGIN DEBUG] Stored hash: '" + passwordHash + "'");
-
         if (!isActive) {
-            System.out.println("[LOGIN DEBUG] User inactive");
+            AUTH_LOG.debug(() -> "Login rejected, user inactive: " + username);
             return false;
         }
 
-        if (!passwordHash.contains(":") || passwordHash.split(":").length < 2) {
-            System.out.println("[LOGIN DEBUG] Simple password comparison");
-            boolean simpleMatch = passwordHash.equals(passwordAttempt);
-            System.out.println("[LOGIN DEBUG] Result: " + simpleMatch);
-            return simpleMatch;
-        }
-
-        if (passwordHash.contains(":")) {
-            String[] parts = passwordHash.split(":");
-            if (parts.length >= 1) {
-                String storedPassword = parts[0]; // First part is the password
-                System.out.println("[LOGIN DEBUG] First part comparison: '" + storedPassword + "'");
-                boolean match = storedPassword.equals(passwordAttempt);
-                System.out.println("[LOGIN DEBUG] Result: " + match);
-                return match;
-            }
-        }
-
-        System.out.println("[LOGIN DEBUG] Trying hash verification...");
-        boolean hashMatch = verifyPassword(passwordAttempt, passwordHash);
-        System.out.println("[LOGIN DEBUG] Hash verification result: " + hashMatch);
-
-        return hashMatch;
+        boolean match = passwordHasher.matches(passwordAttempt, passwordHash);
+        AUTH_LOG.debug(() -> "Password check for " + username + ": " + match);
+        return match;
     }
 
     public void logout() {
-        System.out.println(name + " logged out.");
+        AUTH_LOG.info(name + " logged out.");
     }
     public void changePassword(String newPlainPassword) {
-        this.passwordHash = hashPassword(newPlainPassword);
+        this.passwordHash = passwordHasher.hash(newPlainPassword);
     }
-    private String hashPassword(String plainPassword) {
-        try {
-            SecureRandom random = new SecureRandom();
-            byte[] salt = new byte[16];
-            random.nextBytes(salt);
-
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            digest.update(salt);  // Add salt first
-            byte[] hashedBytes = digest.digest(plainPassword.getBytes());
-
-            String saltBase64 = Base64.getEncoder().encodeToString(salt);
-            String hashBase64 = Base64.getEncoder().encodeToString(hashedBytes);
 
-            return saltBase64 + ":" + hashBase64;
-
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("SHA-256 algorithm not available", e);
-        }
+    public static PasswordHasher getPasswordHasher() {
+        return passwordHasher;
     }
 
-    private boolean verifyPassword(String passwordAttempt, String storedHash) {
-        try {
-            String[] parts = storedHash.split(":");
-            if (parts.length != 2) {
-                return false;
-            }
-
-            byte[] salt = Base64.getDecoder().decode(parts[0]);
-            byte[] storedHashBytes = Base64.getDecoder().decode(parts[1]);
-
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            digest.update(salt);
-            byte[] attemptHashBytes = digest.digest(passwordAttempt.getBytes());
-
-            return MessageDigest.isEqual(storedHashBytes, attemptHashBytes);
-
-        } catch (Exception e) {
-            return false;
-        }
+    public static void setPasswordHasher(PasswordHasher hasher) {
+        passwordHasher = hasher;
     }
 
     public Map<String, Object> getProfile() {
@@ -0,0 +1,136 @@
+package repository;
+
+import model.Book;
+import model.EBook;
+import model.PrintedBook;
+import java.util.ArrayList;
+import java.util.List;
+
+// One book per line, tab separated. Backslash, tab and line breaks inside
+// values are escaped so a record can never span two journal lines, and a null
+// value is written as \N. The trailing availability flag was added later;
+// records without it decode as available whenever copies remain.
+class BookRecordCodec {
+    private static final char SEPARATOR = '\t';
+    private static final String NULL = "\\N";
+    private static final int LEGACY_FIELD_COUNT = 10;
+    private static final int FIELD_COUNT = 11;
+
+    static String encode(Book book) {
+        StringBuilder line = new StringBuilder(128);
+        append(line, book.getType());
+        append(line, book.getIsbn());
+        append(line, book.getTitle());
+        append(line, book.getAuthor());
+        append(line, String.valueOf(book.getPublicationYear()));
+        append(line, String.valueOf(book.getCopies()));
+
+        if (book instanceof EBook) {
+            EBook ebook = (EBook) book;
+            append(line, String.valueOf(ebook.getFileSize()));
+            append(line, ebook.getFormat());
+            append(line, ebook.getDownloadLink());
+            append(line, ebook.isDRMProtected() ? "1" : "0");
+        } else if (book instanceof PrintedBook) {
+            PrintedBook printed = (PrintedBook) book;
+            append(line, printed.getShelfLocation());
+            append(line, printed.getCondition());
+            append(line, String.valueOf(printed.getEdition()));
+            append(line, printed.isReserved() ? "1" : "0");
+        } else {
+            throw new IllegalArgumentException("Unknown book type: " + book.getType());
+        }
+        append(line, book.isWithdrawn() ? "0" : "1");
+        return line.toString();
+    }
+
+    static Book decode(String line) {
+        List<String> fields = split(line);
+        if (fields.size() != FIELD_COUNT && fields.size() != LEGACY_FIELD_COUNT) {
+            throw new IllegalArgumentException("Expected " + FIELD_COUNT + " fields but found " + fields.size());
+        }
+
+        String type = fields.get(0);
+        String isbn = fields.get(1);
+        String title = fields.get(2);
+        String author = fields.get(3);
+        int year = Integer.parseInt(fields.get(4));
+        int copies = Integer.parseInt(fields.get(5));
+
+        Book book;
+        if ("E-Book".equals(type)) {
+            // Older records wrote a missing link as an empty string
+            String link = fields.get(8);
+            book = new EBook(isbn, title, author, year, copies,
+                    Double.parseDouble(fields.get(6)), fields.get(7),
+                    link == null || link.isEmpty() ? null : link, "1".equals(fields.get(9)));
+        } else if ("Printed Book".equals(type)) {
+            PrintedBook printed = new PrintedBook(isbn, title, author, year, copies,
+                    fields.get(6), fields.get(7), Integer.parseInt(fields.get(8)));
+            printed.setReserved("1".equals(fields.get(9)));
+            book = printed;
+        } else {
+            throw new IllegalArgumentException("Unknown book type: " + type);
+        }
+
+        if (fields.size() == FIELD_COUNT && "0".equals(fields.get(10))) {
+            book.setAvailable(false);
+        }
+        return book;
+    }
+
+    private static void append(StringBuilder line, String value) {
+        if (line.length() > 0) {
+            line.append(SEPARATOR);
+        }
+        if (value == null) {
+            line.append(NULL);
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\': line.append("\\\\"); break;
+                case '\t': line.append("\\t"); break;
+                case '\n': line.append("\\n"); break;
+                case '\r': line.append("\\r"); break;
+                default: line.append(c);
+            }
+        }
+    }
+
+    private static List<String> split(String line) {
+        List<String> fields = new ArrayList<>(FIELD_COUNT);
+        StringBuilder current = new StringBuilder();
+        int fieldStart = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == SEPARATOR) {
+                fields.add(field(line, fieldStart, i, current));
+                current.setLength(0);
+                fieldStart = i + 1;
+            } else if (c == '\\' && i + 1 < line.length()) {
+                char next = line.charAt(++i);
+                switch (next) {
+                    case 't': current.append('\t'); break;
+                    case 'n': current.append('\n'); break;
+                    case 'r': current.append('\r'); break;
+                    default: current.append(next);
+                }
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(field(line, fieldStart, line.length(), current));
+        return fields;
+    }
+
+    // Null only when the raw field is exactly the marker; an escaped "\\N" in a
+    // value decodes to the text \N
+    private static String field(String line, int start, int end, StringBuilder decoded) {
+        if (end - start == NULL.length() && line.startsWith(NULL, start)) {
+            return null;
+        }
+        return decoded.toString();
+    }
+}
@@ -1,9 +1,16 @@
 package repository;
 
 import model.Book;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface BookRepository {
+    int STREAM_BATCH_SIZE = 500;
+
     void save(Book book);
     Book findById(String isbn);
     List<Book> findAll();
@@ -12,4 +19,92 @@ public interface BookRepository {
 
     List<Book> findByTitle(String title);
     List<Book> findByAuthor(String author);
+
+    // Same order as findAll(), so pages line up with a full listing
+    int count();
+    List<Book> findPage(int offset, int limit);
+
+    // Keyset paging in ISBN order: the page after afterIsbn, or the first page when null.
+    // Unlike an offset, the cost does not grow with how far into the catalog the page is.
+    List<Book> findPage(String afterIsbn, int limit);
+
+    List<Book> findAvailable();
+
+    // The books that exist, in the order of the given ISBNs; unknown ones are skipped
+    default List<Book> findByIds(List<String> isbns) {
+        List<Book> found = new ArrayList<>(isbns.size());
+        for (String isbn : isbns) {
+            Book book = findById(isbn);
+            if (book != null) {
+                found.add(book);
+            }
+        }
+        return found;
+    }
+
+    // Bulk operations for imports; implementations batch them where they can
+    default Set<String> findExistingIsbns(Collection<String> isbns) {
+        Set<String> existing = new HashSet<>();
+        for (String isbn : isbns) {
+            if (findById(isbn) != null) {
+                existing.add(isbn);
+            }
+        }
+        return existing;
+    }
+
+    // Returns how many of the books were written; 0 when a batch failed as a whole
+    default int saveAll(List<Book> books) {
+        for (Book book : books) {
+            save(book);
+        }
+        return books.size();
+    }
+
+    // Visits every book in ISBN order, holding at most one batch in memory
+    default void forEach(Consumer<Book> action) {
+        String after = null;
+        List<Book> batch;
+        do {
+            batch = findPage(after, STREAM_BATCH_SIZE);
+            for (Book book : batch) {
+                action.accept(book);
+            }
+            if (!batch.isEmpty()) {
+                after = batch.get(batch.size() - 1).getIsbn();
+            }
+        } while (batch.size() == STREAM_BATCH_SIZE);
+    }
+
+    // Atomically take one copy; false if the book is unknown or none are left
+    boolean tryReserveCopy(String isbn);
+    boolean releaseCopy(String isbn);
+
+    // The only way to change the stock of a stored book: save/update keep the
+    // stored count. False if the book is unknown or the count would go negative.
+    boolean adjustCopies(String isbn, int delta);
+
+    // Books whose title or author matches the query
+    default List<Book> search(String query) {
+        List<Book> results = new ArrayList<>(findByTitle(query));
+        results.addAll(findByAuthor(query));
+        return results.stream().distinct().toList();
+    }
+
+    // The first limit books search() would return
+    default List<Book> search(String query, int limit) {
+        List<Book> results = search(query);
+        return results.size() > limit ? results.subList(0, limit) : results;
+    }
+
+    // True when search() is answered by a real full-text index
+    default boolean supportsFullTextSearch() {
+        return false;
+    }
+
+    // Goes up on every save, saveAll, update and delete (not on copy changes), so
+    // callers caching catalog data can tell it moved. -1 when not tracked.
+    default long modificationCount() {
+        return -1;
+    }
 }
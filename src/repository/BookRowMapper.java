@@ -0,0 +1,99 @@
+package repository;
+
+import model.Book;
+import model.EBook;
+import model.PrintedBook;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+
+// Reads and binds books table rows by column position. Queries must select
+// COLUMNS (or QUALIFIED_COLUMNS when joined) so the positions below line up.
+class BookRowMapper {
+    static final String COLUMNS =
+            "isbn, title, author, publication_year, copies, available, book_type, " +
+            "file_size_mb, format, download_link, drm_protected, " +
+            "shelf_location, condition, edition";
+
+    static final String QUALIFIED_COLUMNS =
+            "b.isbn, b.title, b.author, b.publication_year, b.copies, b.available, b.book_type, " +
+            "b.file_size_mb, b.format, b.download_link, b.drm_protected, " +
+            "b.shelf_location, b.condition, b.edition";
+
+    private static final int ISBN = 1;
+    private static final int TITLE = 2;
+    private static final int AUTHOR = 3;
+    private static final int PUBLICATION_YEAR = 4;
+    private static final int COPIES = 5;
+    private static final int AVAILABLE = 6;
+    private static final int BOOK_TYPE = 7;
+    private static final int FILE_SIZE_MB = 8;
+    private static final int FORMAT = 9;
+    private static final int DOWNLOAD_LINK = 10;
+    private static final int DRM_PROTECTED = 11;
+    private static final int SHELF_LOCATION = 12;
+    private static final int CONDITION = 13;
+    private static final int EDITION = 14;
+
+    static Book read(ResultSet rs) throws SQLException {
+        String type = rs.getString(BOOK_TYPE);
+        String isbn = rs.getString(ISBN);
+        String title = rs.getString(TITLE);
+        String author = rs.getString(AUTHOR);
+        int year = rs.getInt(PUBLICATION_YEAR);
+        int copies = rs.getInt(COPIES);
+
+        Book book;
+        if ("E-Book".equals(type)) {
+            book = new EBook(isbn, title, author, year, copies,
+                    rs.getDouble(FILE_SIZE_MB), rs.getString(FORMAT),
+                    rs.getString(DOWNLOAD_LINK), rs.getInt(DRM_PROTECTED) == 1);
+        } else if ("Printed Book".equals(type)) {
+            book = new PrintedBook(isbn, title, author, year, copies,
+                    rs.getString(SHELF_LOCATION), rs.getString(CONDITION), rs.getInt(EDITION));
+        } else {
+            throw new SQLException("Unknown book type: " + type);
+        }
+
+        if (rs.getInt(AVAILABLE) == 0) {
+            book.setAvailable(false);
+        }
+        return book;
+    }
+
+    // Binds all 14 columns in COLUMNS order; the other type's columns are NULL
+    static void bind(PreparedStatement pstmt, Book book) throws SQLException {
+        pstmt.setString(ISBN, book.getIsbn());
+        pstmt.setString(TITLE, book.getTitle());
+        pstmt.setString(AUTHOR, book.getAuthor());
+        pstmt.setInt(PUBLICATION_YEAR, book.getPublicationYear());
+        pstmt.setInt(COPIES, book.getCopies());
+        pstmt.setInt(AVAILABLE, book.isWithdrawn() ? 0 : 1);
+        pstmt.setString(BOOK_TYPE, book.getType());
+
+        if (book instanceof EBook) {
+            EBook ebook = (EBook) book;
+            pstmt.setDouble(FILE_SIZE_MB, ebook.getFileSize());
+            pstmt.setString(FORMAT, ebook.getFormat());
+            pstmt.setString(DOWNLOAD_LINK, ebook.getDownloadLink());
+            pstmt.setInt(DRM_PROTECTED, ebook.isDRMProtected() ? 1 : 0);
+        } else {
+            pstmt.setNull(FILE_SIZE_MB, Types.REAL);
+            pstmt.setNull(FORMAT, Types.VARCHAR);
+            pstmt.setNull(DOWNLOAD_LINK, Types.VARCHAR);
+            pstmt.setNull(DRM_PROTECTED, Types.INTEGER);
+        }
+
+        if (book instanceof PrintedBook) {
+            PrintedBook printed = (PrintedBook) book;
+            pstmt.setString(SHELF_LOCATION, printed.getShelfLocation());
+            pstmt.setString(CONDITION, printed.getCondition());
+            pstmt.setInt(EDITION, printed.getEdition());
+        } else {
+            pstmt.setNull(SHELF_LOCATION, Types.VARCHAR);
+            pstmt.setNull(CONDITION, Types.VARCHAR);
+            pstmt.setNull(EDITION, Types.INTEGER);
+        }
+    }
+}
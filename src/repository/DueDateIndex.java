@@ -0,0 +1,56 @@
+package repository;
+
+import model.Loan;
+import model.LoanStatus;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Active loans ordered by due date. dueBefore() walks only the head of the
+// skip list, so an overdue run costs O(k) in the number of overdue loans
+// rather than O(n) in all loans ever recorded.
+class DueDateIndex {
+    private final ConcurrentSkipListMap<LocalDate, Map<String, Loan>> byDueDate = new ConcurrentSkipListMap<>();
+    // The due date each loan is filed under, which may be stale after a renewal
+    private final Map<String, LocalDate> indexedDueDates = new ConcurrentHashMap<>();
+
+    synchronized void put(Loan loan) {
+        remove(loan.getLoanId());
+        if (loan.getStatus() != LoanStatus.ACTIVE) {
+            return;
+        }
+        LocalDate dueDate = loan.getDueDate();
+        byDueDate.computeIfAbsent(dueDate, d -> new ConcurrentHashMap<>()).put(loan.getLoanId(), loan);
+        indexedDueDates.put(loan.getLoanId(), dueDate);
+    }
+
+    synchronized void remove(String loanId) {
+        LocalDate dueDate = indexedDueDates.remove(loanId);
+        if (dueDate == null) {
+            return;
+        }
+        Map<String, Loan> loans = byDueDate.get(dueDate);
+        if (loans != null) {
+            loans.remove(loanId);
+            if (loans.isEmpty()) {
+                byDueDate.remove(dueDate);
+            }
+        }
+    }
+
+    // Loans still active and due strictly before the given date
+    List<Loan> dueBefore(LocalDate date) {
+        List<Loan> result = new ArrayList<>();
+        for (Map<String, Loan> loans : byDueDate.headMap(date, false).values()) {
+            for (Loan loan : loans.values()) {
+                if (loan.getStatus() == LoanStatus.ACTIVE) {
+                    result.add(loan);
+                }
+            }
+        }
+        return result;
+    }
+}
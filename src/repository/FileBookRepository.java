@@ -1,71 +1,135 @@
 package repository;
 
 import model.Book;
+import util.Logger;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
 
 public class FileBookRepository implements BookRepository {
-    private List<Book> books;
+    private static final Logger LOG = Logger.get("repository.books");
+
+    private static final int COMPACTION_THRESHOLD = 1000;
+
+    private Map<String, Book> books;
+    private NavigableSet<String> isbns;
+    private TokenIndex titleIndex;
+    private TokenIndex authorIndex;
     private String filePath;
+    private RecordJournal journal;
+    private long modifications;
 
     public FileBookRepository(String filePath) {
         this.filePath = filePath;
-        this.books = new ArrayList<>();
-        loadFromFile(); // We'll implement this later
+        this.books = new LinkedHashMap<>();
+        this.isbns = new TreeSet<>();
+        this.titleIndex = new TokenIndex();
+        this.authorIndex = new TokenIndex();
+        this.journal = new RecordJournal(filePath, COMPACTION_THRESHOLD);
+        loadFromFile();
+    }
+
+    @Override
+    public synchronized void save(Book book) {
+        keepStoredCopies(book);
+        put(book);
+        modifications++;
+        appendToJournal(RecordJournal.PUT, BookRecordCodec.encode(book));
     }
 
     @Override
-    public void save(Book book) {
-        for (int i = 0; i < books.size(); i++) {
-            if (books.get(i).getIsbn().equals(book.getIsbn())) {
-                books.set(i, book); // Update existing
-                saveToFile();
-                return;
+    public synchronized Book findById(String isbn) {
+        return books.get(isbn);
+    }
+
+    @Override
+    public synchronized Set<String> findExistingIsbns(Collection<String> candidates) {
+        Set<String> existing = new HashSet<>();
+        for (String isbn : candidates) {
+            if (books.containsKey(isbn)) {
+                existing.add(isbn);
             }
         }
-        books.add(book);
-        saveToFile();
+        return existing;
     }
 
+    // Journal first: a batch that did not reach the file is not kept in memory either
     @Override
-    public Book findById(String isbn) {
-        return books.stream()
-                .filter(book -> book.getIsbn().equals(isbn))
-                .findFirst()
-                .orElse(null);
+    public synchronized int saveAll(List<Book> batch) {
+        List<String> lines = new ArrayList<>(batch.size());
+        for (Book book : batch) {
+            keepStoredCopies(book);
+            lines.add(BookRecordCodec.encode(book));
+        }
+        try {
+            journal.appendAll(RecordJournal.PUT, lines);
+        } catch (IOException e) {
+            LOG.error("❌ Error writing book journal: " + e.getMessage());
+            return 0;
+        }
+        for (Book book : batch) {
+            put(book);
+        }
+        modifications++;
+        if (journal.needsCompaction(books.size())) {
+            journal.compactAsync(this, this::snapshotLines);
+        }
+        return batch.size();
     }
 
     @Override
-    public List<Book> findAll() {
-        return new ArrayList<>(books);
+    public synchronized List<Book> findAll() {
+        return new ArrayList<>(books.values());
     }
 
     @Override
-    public boolean delete(String isbn) {
-        boolean removed = books.removeIf(book -> book.getIsbn().equals(isbn));
-        if (removed) {
-            saveToFile();
+    public synchronized int count() {
+        return books.size();
+    }
+
+    @Override
+    public synchronized List<Book> findPage(int offset, int limit) {
+        List<Book> page = new ArrayList<>(Math.min(limit, 1024));
+        int index = 0;
+        for (Book book : books.values()) {
+            if (index++ < offset) {
+                continue;
+            }
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(book);
         }
-        return removed;
+        return page;
     }
 
     @Override
-    public boolean update(Book book) {
-        for (int i = 0; i < books.size(); i++) {
-            if (books.get(i).getIsbn().equals(book.getIsbn())) {
-                books.set(i, book);
-                saveToFile();
-                return true;
+    public synchronized List<Book> findPage(String afterIsbn, int limit) {
+        List<Book> page = new ArrayList<>(Math.min(limit, 1024));
+        Set<String> keys = afterIsbn == null ? isbns : isbns.tailSet(afterIsbn, false);
+        for (String isbn : keys) {
+            if (page.size() == limit) {
+                break;
             }
+            page.add(books.get(isbn));
         }
-        return false;
+        return page;
     }
 
     @Override
-    public List<Book> findByTitle(String title) {
+    public synchronized List<Book> findAvailable() {
         List<Book> result = new ArrayList<>();
-        for (Book book : books) {
-            if (book.getTitle().toLowerCase().contains(title.toLowerCase())) {
+        for (Book book : books.values()) {
+            if (book.isAvailable()) {
                 result.add(book);
             }
         }
@@ -73,23 +137,177 @@ public class FileBookRepository implements BookRepository {
     }
 
     @Override
-    public List<Book> findByAuthor(String author) {
+    public synchronized boolean delete(String isbn) {
+        boolean removed = remove(isbn);
+        if (removed) {
+            modifications++;
+            appendToJournal(RecordJournal.DELETE, isbn);
+        }
+        return removed;
+    }
+
+    @Override
+    public synchronized boolean update(Book book) {
+        if (!books.containsKey(book.getIsbn())) {
+            return false;
+        }
+        keepStoredCopies(book);
+        put(book);
+        modifications++;
+        appendToJournal(RecordJournal.PUT, BookRecordCodec.encode(book));
+        return true;
+    }
+
+    @Override
+    public synchronized long modificationCount() {
+        return modifications;
+    }
+
+    // The count itself is changed by CAS outside the repository lock; only the
+    // journal append is serialized.
+    @Override
+    public boolean tryReserveCopy(String isbn) {
+        Book book = findById(isbn);
+        if (book == null || book.isWithdrawn() || !book.borrowCopy()) {
+            return false;
+        }
+        recordCopies(book);
+        return true;
+    }
+
+    @Override
+    public boolean releaseCopy(String isbn) {
+        Book book = findById(isbn);
+        if (book == null) {
+            return false;
+        }
+        book.returnCopy();
+        recordCopies(book);
+        return true;
+    }
+
+    @Override
+    public boolean adjustCopies(String isbn, int delta) {
+        Book book = findById(isbn);
+        if (book == null || !book.adjustCopies(delta)) {
+            return false;
+        }
+        recordCopies(book);
+        return true;
+    }
+
+    // Encoded under the lock after the CAS, so whichever append lands last
+    // carries the latest count and replay never loses a borrow or return.
+    private synchronized void recordCopies(Book book) {
+        if (books.get(book.getIsbn()) == book) {
+            appendToJournal(RecordJournal.PUT, BookRecordCodec.encode(book));
+        }
+    }
+
+    @Override
+    public synchronized List<Book> findByTitle(String title) {
+        return search(titleIndex, title, Book::getTitle);
+    }
+
+    @Override
+    public synchronized List<Book> findByAuthor(String author) {
+        return search(authorIndex, author, Book::getAuthor);
+    }
+
+    private List<Book> search(TokenIndex index, String query, Function<Book, String> field) {
+        String queryLower = query.toLowerCase();
         List<Book> result = new ArrayList<>();
-        for (Book book : books) {
-            if (book.getAuthor().toLowerCase().contains(author.toLowerCase())) {
-                result.add(book);
+
+        Set<String> candidates = index.candidates(query);
+        if (candidates == null) {
+            for (Book book : books.values()) {
+                if (field.apply(book).toLowerCase().contains(queryLower)) {
+                    result.add(book);
+                }
+            }
+        } else {
+            for (String isbn : candidates) {
+                Book book = books.get(isbn);
+                if (book != null && field.apply(book).toLowerCase().contains(queryLower)) {
+                    result.add(book);
+                }
             }
         }
+
+        // Same ordering as SQLiteBookRepository's "ORDER BY title"
+        result.sort(Comparator.comparing(Book::getTitle));
         return result;
     }
 
+    // Like the SQLite upsert: replacing a stored book keeps its copy count,
+    // which only adjustCopies and the borrow/return paths change
+    private void keepStoredCopies(Book book) {
+        Book stored = books.get(book.getIsbn());
+        if (stored != null && stored != book) {
+            book.setCopies(stored.getCopies());
+        }
+    }
+
+    private void put(Book book) {
+        books.put(book.getIsbn(), book);
+        isbns.add(book.getIsbn());
+        titleIndex.put(book.getIsbn(), book.getTitle());
+        authorIndex.put(book.getIsbn(), book.getAuthor());
+    }
+
+    private boolean remove(String isbn) {
+        if (books.remove(isbn) == null) {
+            return false;
+        }
+        isbns.remove(isbn);
+        titleIndex.remove(isbn);
+        authorIndex.remove(isbn);
+        return true;
+    }
+
     private void loadFromFile() {
-        System.out.println("Loading books from: " + filePath);
-        // TODO: Read from CSV/JSON file
+        if (!journal.exists()) {
+            LOG.info("⚠️ File doesn't exist, will create: " + filePath);
+            return;
+        }
+
+        try {
+            journal.load(line -> loadRecord(RecordJournal.PUT, line), this::loadRecord);
+            LOG.info("✅ Loaded " + books.size() + " books from: " + filePath);
+        } catch (IOException e) {
+            LOG.error("❌ Error loading file: " + e.getMessage());
+        }
     }
 
-    private void saveToFile() {
-        System.out.println("Saving books to: " + filePath);
-        // TODO: Write to CSV/JSON file
+    private void loadRecord(String op, String payload) {
+        try {
+            if (RecordJournal.PUT.equals(op)) {
+                put(BookRecordCodec.decode(payload));
+            } else if (RecordJournal.DELETE.equals(op)) {
+                remove(payload);
+            }
+        } catch (RuntimeException e) {
+            LOG.error("❌ Error parsing book record: " + payload);
+        }
+    }
+
+    private void appendToJournal(String op, String payload) {
+        try {
+            journal.append(op, payload);
+        } catch (IOException e) {
+            LOG.error("❌ Error writing book journal: " + e.getMessage());
+            return;
+        }
+        if (journal.needsCompaction(books.size())) {
+            journal.compactAsync(this, this::snapshotLines);
+        }
+    }
+
+    private List<String> snapshotLines() {
+        List<String> lines = new ArrayList<>(books.size());
+        for (Book book : books.values()) {
+            lines.add(BookRecordCodec.encode(book));
+        }
+        return lines;
     }
 }
@@ -2,16 +2,23 @@ package repository;
 
 import model.User;
 import model.UserRole;
-import java.io.*;
+import util.Logger;
+import java.io.IOException;
 import java.util.*;
 
 public class FileUserRepository implements UserRepository {
-    private List<User> users;
+    private static final Logger LOG = Logger.get("repository.users");
+
+    private static final int COMPACTION_THRESHOLD = 500;
+
+    private UserIndex users;
     private String filePath;
+    private RecordJournal journal;
 
     public FileUserRepository(String filePath) {
         this.filePath = filePath;
-        this.users = new ArrayList<>();
+        this.users = new UserIndex();
+        this.journal = new RecordJournal(filePath, COMPACTION_THRESHOLD);
         loadFromFile();
 
         if (users.isEmpty()) {
@@ -20,111 +27,126 @@ public class FileUserRepository implements UserRepository {
     }
 
     @Override
-    public void save(User user) {
-        for (int i = 0; i < users.size(); i++) {
-            if (users.get(i).getId().equals(user.getId())) {
-                users.set(i, user);
-                saveToFile();
-                return;
-            }
-        }
-        users.add(user);
-        saveToFile();
+    public synchronized void save(User user) {
+        put(user);
+        appendToJournal(RecordJournal.PUT, serializeUser(user));
     }
 
     @Override
     public User findById(String id) {
-        return users.stream()
-                .filter(user -> user.getId().equals(id))
-                .findFirst()
-                .orElse(null);
+        return users.findById(id);
     }
 
     @Override
     public User findByUsername(String username) {
-        return users.stream()
-                .filter(user -> user.getUsername().equals(username))
-                .findFirst()
-                .orElse(null);
+        return users.findByUsername(username);
     }
 
+    // Case-insensitive, matching SQLiteUserRepository.findByEmail
     @Override
     public User findByEmail(String email) {
-        return users.stream()
-                .filter(user -> user.getEmail().equals(email))
-                .findFirst()
-                .orElse(null);
+        return users.findByEmail(email);
     }
 
     @Override
     public List<User> findAll() {
-        return new ArrayList<>(users);
+        return new ArrayList<>(users.values());
+    }
+
+    @Override
+    public int count() {
+        return users.size();
     }
 
     @Override
-    public boolean delete(String id) {
-        boolean removed = users.removeIf(user -> user.getId().equals(id));
+    public List<User> findPage(int offset, int limit) {
+        return users.page(offset, limit);
+    }
+
+    @Override
+    public synchronized boolean delete(String id) {
+        boolean removed = remove(id);
         if (removed) {
-            saveToFile();
+            appendToJournal(RecordJournal.DELETE, id);
         }
         return removed;
     }
 
     @Override
-    public boolean update(User user) {
-        for (int i = 0; i < users.size(); i++) {
-            if (users.get(i).getId().equals(user.getId())) {
-                users.set(i, user);
-                saveToFile();
-                return true;
-            }
+    public synchronized boolean update(User user) {
+        if (!users.contains(user.getId())) {
+            return false;
         }
-        return false;
+        put(user);
+        appendToJournal(RecordJournal.PUT, serializeUser(user));
+        return true;
+    }
+
+    private void put(User user) {
+        users.put(user);
+    }
+
+    private boolean remove(String id) {
+        return users.remove(id) != null;
     }
 
     private void createDefaultUsers() {
         // SIMPLE hardcoded users (no reflection needed)
-        users.add(new User("admin001", "System Administrator", "admin@library.com",
+        save(new User("admin001", "System Administrator", "admin@library.com",
                 "555-0000", "admin", "admin123", UserRole.ADMIN) {});
-        users.add(new User("lib001", "Librarian User", "librarian@library.com",
+        save(new User("lib001", "Librarian User", "librarian@library.com",
                 "555-0001", "librarian", "lib123", UserRole.LIBRARIAN) {});
-        users.add(new User("mem001", "Member User", "member@library.com",
+        save(new User("mem001", "Member User", "member@library.com",
                 "555-0002", "member", "mem123", UserRole.MEMBER) {});
 
-        saveToFile();
-        System.out.println("✅ Created default users in file");
+        LOG.info("✅ Created default users in file");
     }
 
+    // users.txt stays the snapshot in the original CSV format; changes since the
+    // last compaction are replayed from users.txt.journal.
     private void loadFromFile() {
-        File file = new File(filePath);
-        if (!file.exists()) {
-            System.out.println("⚠️ File doesn't exist, will create: " + filePath);
+        if (!journal.exists()) {
+            LOG.info("⚠️ File doesn't exist, will create: " + filePath);
             return;
         }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                User user = parseUser(line);
-                if (user != null) {
-                    users.add(user);
-                }
-            }
-            System.out.println("✅ Loaded " + users.size() + " users from: " + filePath);
+        try {
+            journal.load(line -> loadRecord(RecordJournal.PUT, line), this::loadRecord);
+            LOG.info("✅ Loaded " + users.size() + " users from: " + filePath);
         } catch (IOException e) {
-            System.err.println("❌ Error loading file: " + e.getMessage());
+            LOG.error("❌ Error loading file: " + e.getMessage());
         }
     }
 
-    private void saveToFile() {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filePath))) {
-            for (User user : users) {
-                writer.println(serializeUser(user));
+    private void loadRecord(String op, String payload) {
+        if (RecordJournal.PUT.equals(op)) {
+            User user = parseUser(payload);
+            if (user != null) {
+                put(user);
             }
-            System.out.println("✅ Saved " + users.size() + " users to: " + filePath);
+        } else if (RecordJournal.DELETE.equals(op)) {
+            remove(payload);
+        }
+    }
+
+    private void appendToJournal(String op, String payload) {
+        try {
+            journal.append(op, payload);
         } catch (IOException e) {
-            System.err.println("❌ Error saving file: " + e.getMessage());
+            LOG.error("❌ Error saving file: " + e.getMessage());
+            return;
+        }
+        if (journal.needsCompaction(users.size())) {
+            journal.compactAsync(this, this::snapshotLines);
+        }
+    }
+
+    private List<String> snapshotLines() {
+        List<String> lines = new ArrayList<>(users.size());
+        for (User user : users.values()) {
+            lines.add(serializeUser(user));
         }
+        return lines;
     }
 
     private String serializeUser(User user) {
@@ -154,7 +176,7 @@ public class FileUserRepository implements UserRepository {
                 ) {};
             }
         } catch (Exception e) {
-            System.err.println("❌ Error parsing user line: " + line);
+            LOG.error("❌ Error parsing user line: " + line);
         }
         return null;
     }
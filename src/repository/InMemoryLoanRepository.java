@@ -0,0 +1,103 @@
+package repository;
+
+import model.Loan;
+import model.LoanStatus;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Loans keyed by id, plus each member's active loans, so the "my loans" and
+// return/renew paths cost the same no matter how many loans are open.
+public class InMemoryLoanRepository implements LoanRepository {
+    private Map<String, Loan> loans;
+    private Map<String, Map<String, Loan>> activeByMember;
+    private DueDateIndex dueDates;
+
+    public InMemoryLoanRepository() {
+        this.loans = new ConcurrentHashMap<>();
+        this.activeByMember = new ConcurrentHashMap<>();
+        this.dueDates = new DueDateIndex();
+    }
+
+    @Override
+    public void save(Loan loan) {
+        Loan previous = loans.put(loan.getLoanId(), loan);
+        index(previous, loan);
+    }
+
+    @Override
+    public Loan findById(String loanId) {
+        return loans.get(loanId);
+    }
+
+    @Override
+    public List<Loan> findAll() {
+        return new ArrayList<>(loans.values());
+    }
+
+    @Override
+    public boolean delete(String loanId) {
+        Loan removed = loans.remove(loanId);
+        if (removed == null) {
+            return false;
+        }
+        unindexMember(removed);
+        dueDates.remove(loanId);
+        return true;
+    }
+
+    @Override
+    public boolean update(Loan loan) {
+        // replace hands back the old loan, so its member index entry can be dropped
+        Loan previous = loans.replace(loan.getLoanId(), loan);
+        if (previous == null) {
+            return false;
+        }
+        index(previous, loan);
+        return true;
+    }
+
+    @Override
+    public List<Loan> findActiveByMember(String memberId) {
+        Map<String, Loan> active = activeByMember.get(memberId);
+        if (active == null) {
+            return new ArrayList<>();
+        }
+        List<Loan> result = new ArrayList<>(active.size());
+        for (Loan loan : active.values()) {
+            if (loan.getStatus() == LoanStatus.ACTIVE) {
+                result.add(loan);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Loan> findOverdue(LocalDate asOf) {
+        return dueDates.dueBefore(asOf);
+    }
+
+    private void index(Loan previous, Loan loan) {
+        if (previous != null && previous != loan) {
+            unindexMember(previous);
+        }
+        String memberId = loan.getMember().getId();
+        if (loan.getStatus() == LoanStatus.ACTIVE) {
+            activeByMember.computeIfAbsent(memberId, id -> new ConcurrentHashMap<>())
+                    .put(loan.getLoanId(), loan);
+        } else {
+            unindexMember(loan);
+        }
+        dueDates.put(loan);
+    }
+
+    private void unindexMember(Loan loan) {
+        // computeIfPresent drops the member's entry atomically once it is empty
+        activeByMember.computeIfPresent(loan.getMember().getId(), (id, active) -> {
+            active.remove(loan.getLoanId());
+            return active.isEmpty() ? null : active;
+        });
+    }
+}
@@ -0,0 +1,16 @@
+package repository;
+
+import model.Loan;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface LoanRepository {
+    void save(Loan loan);
+    Loan findById(String loanId);
+    List<Loan> findAll();
+    boolean delete(String loanId);
+    boolean update(Loan loan);
+
+    List<Loan> findActiveByMember(String memberId);
+    List<Loan> findOverdue(LocalDate asOf);
+}
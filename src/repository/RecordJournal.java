@@ -0,0 +1,188 @@
+package repository;
+
+import util.Logger;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Snapshot file plus an append-only journal of mutations. Every mutation is a
+// single "<OP> <payload>" line; a background compaction rolls the journal into a
+// fresh snapshot once it grows past the threshold.
+//
+// Not thread-safe on its own: the owning repository must call load() and
+// append() while holding the same lock it passes to compactAsync().
+class RecordJournal {
+    private static final Logger LOG = Logger.get("repository.journal");
+
+    static final String PUT = "PUT";
+    static final String DELETE = "DEL";
+
+    private static final ExecutorService COMPACTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "journal-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Path snapshotPath;
+    private final Path journalPath;
+    private final Path rotatedPath;
+    private final Path tempPath;
+    private final int compactionThreshold;
+
+    private BufferedWriter writer;
+    private int entries;
+    private volatile boolean compacting;
+
+    RecordJournal(String snapshotFile, int compactionThreshold) {
+        this.snapshotPath = Paths.get(snapshotFile);
+        this.journalPath = Paths.get(snapshotFile + ".journal");
+        this.rotatedPath = Paths.get(snapshotFile + ".journal.old");
+        this.tempPath = Paths.get(snapshotFile + ".tmp");
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    boolean exists() {
+        return Files.exists(snapshotPath) || Files.exists(journalPath) || Files.exists(rotatedPath);
+    }
+
+    // Replays the snapshot, then any journal left over from an interrupted
+    // compaction, then the live journal. PUT and DEL records are absolute, so
+    // replaying entries already folded into the snapshot is harmless.
+    void load(Consumer<String> snapshotLine, BiConsumer<String, String> entry) throws IOException {
+        if (Files.exists(snapshotPath)) {
+            try (BufferedReader reader = Files.newBufferedReader(snapshotPath, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isEmpty()) {
+                        snapshotLine.accept(line);
+                    }
+                }
+            }
+        }
+        entries = replay(rotatedPath, entry) + replay(journalPath, entry);
+    }
+
+    private int replay(Path path, BiConsumer<String, String> entry) throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        int count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int space = line.indexOf(' ');
+                if (space <= 0) {
+                    continue; // torn write from a crash
+                }
+                entry.accept(line.substring(0, space), line.substring(space + 1));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    void append(String op, String payload) throws IOException {
+        if (writer == null) {
+            writer = Files.newBufferedWriter(journalPath, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        writer.write(op);
+        writer.write(' ');
+        writer.write(payload);
+        writer.write('\n');
+        writer.flush();
+        entries++;
+    }
+
+    // One flush for the whole batch
+    void appendAll(String op, List<String> payloads) throws IOException {
+        if (writer == null) {
+            writer = Files.newBufferedWriter(journalPath, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        for (String payload : payloads) {
+            writer.write(op);
+            writer.write(' ');
+            writer.write(payload);
+            writer.write('\n');
+        }
+        writer.flush();
+        entries += payloads.size();
+    }
+
+    // Compacting only once the journal is as long as the live data keeps the
+    // amortized cost of a mutation constant regardless of catalog size.
+    boolean needsCompaction(int liveRecords) {
+        return !compacting && entries >= Math.max(compactionThreshold, liveRecords);
+    }
+
+    void compactAsync(Object lock, Supplier<List<String>> snapshot) {
+        compacting = true;
+        COMPACTOR.execute(() -> {
+            try {
+                List<String> lines;
+                synchronized (lock) {
+                    lines = snapshot.get();
+                    rotate();
+                }
+                writeSnapshot(lines);
+            } catch (IOException e) {
+                LOG.error("❌ Error compacting " + snapshotPath + ": " + e.getMessage());
+            } finally {
+                compacting = false;
+            }
+        });
+    }
+
+    private void rotate() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+        if (Files.exists(journalPath)) {
+            if (Files.exists(rotatedPath)) {
+                // A previous compaction never finished; keep its entries
+                Files.write(rotatedPath, Files.readAllBytes(journalPath), StandardOpenOption.APPEND);
+                Files.delete(journalPath);
+            } else {
+                Files.move(journalPath, rotatedPath);
+            }
+        }
+        entries = 0;
+    }
+
+    private void writeSnapshot(List<String> lines) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(tempPath.toFile());
+             BufferedWriter snapshotWriter = new BufferedWriter(
+                     new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            for (String line : lines) {
+                snapshotWriter.write(line);
+                snapshotWriter.write('\n');
+            }
+            snapshotWriter.flush();
+            out.getFD().sync();
+        }
+
+        try {
+            Files.move(tempPath, snapshotPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING);
+        }
+        Files.deleteIfExists(rotatedPath);
+    }
+}
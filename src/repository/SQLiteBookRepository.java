@@ -2,75 +2,203 @@ package repository;
 
 import model.Book;
 import util.DatabaseManager;
+import util.Logger;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class SQLiteBookRepository implements BookRepository {
+    private static final Logger LOG = Logger.get("repository.books");
+
+    // SQLite caps bound parameters at 999 on older builds
+    private static final int LOOKUP_CHUNK_SIZE = 500;
+
+    // Shared by every instance, since they all write the one database
+    private static final AtomicLong MODIFICATIONS = new AtomicLong();
+
+    // An upsert rather than INSERT OR REPLACE: REPLACE deletes the row without
+    // firing delete triggers, which would leave stale entries in books_fts.
+    // Copies are set on insert only; afterwards tryReserveCopy/releaseCopy own
+    // the count, so saving a Book read before a borrow cannot undo it.
+    private static final String UPSERT_SQL = """
+        INSERT INTO books (%s)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        ON CONFLICT(isbn) DO UPDATE SET
+            title = excluded.title,
+            author = excluded.author,
+            publication_year = excluded.publication_year,
+            available = excluded.available,
+            book_type = excluded.book_type,
+            file_size_mb = excluded.file_size_mb,
+            format = excluded.format,
+            download_link = excluded.download_link,
+            drm_protected = excluded.drm_protected,
+            shelf_location = excluded.shelf_location,
+            condition = excluded.condition,
+            edition = excluded.edition
+    """.formatted(BookRowMapper.COLUMNS);
+
+    private boolean fullTextSearch;
 
     public SQLiteBookRepository() {
+        this(false);
     }
 
-    @Override
-    public void save(Book book) {
-        Map<String, Object> profile = book.getProfile();
+    // With fullTextSearch, search() runs one MATCH query against an FTS5 index
+    // over title and author instead of two LIKE '%...%' table scans.
+    public SQLiteBookRepository(boolean fullTextSearch) {
+        this.fullTextSearch = fullTextSearch && DatabaseManager.isAvailable() && createFullTextIndex();
+    }
 
-        String sql = """
-            INSERT OR REPLACE INTO books 
-            (isbn, title, author, publication_year, copies, available, book_type,
-             file_size_mb, format, download_link, drm_protected,
-             shelf_location, condition, edition)
-            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-        """;
+    // External-content FTS5 table: it stores only the index and reads title and
+    // author back from books by id, the table's INTEGER PRIMARY KEY, which VACUUM
+    // never renumbers. Triggers keep it in step with books; the update trigger is
+    // limited to title/author so borrowing a copy costs nothing.
+    private static synchronized boolean createFullTextIndex() {
+        String[] statements = {
+            """
+            CREATE TRIGGER IF NOT EXISTS books_fts_insert AFTER INSERT ON books BEGIN
+                INSERT INTO books_fts(rowid, title, author) VALUES (new.id, new.title, new.author);
+            END
+            """,
+            """
+            CREATE TRIGGER IF NOT EXISTS books_fts_delete AFTER DELETE ON books BEGIN
+                INSERT INTO books_fts(books_fts, rowid, title, author) VALUES ('delete', old.id, old.title, old.author);
+            END
+            """,
+            """
+            CREATE TRIGGER IF NOT EXISTS books_fts_update AFTER UPDATE OF title, author ON books BEGIN
+                INSERT INTO books_fts(books_fts, rowid, title, author) VALUES ('delete', old.id, old.title, old.author);
+                INSERT INTO books_fts(rowid, title, author) VALUES (new.id, new.title, new.author);
+            END
+            """
+        };
 
         try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             Statement stmt = conn.createStatement()) {
+
+            String definition = null;
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT sql FROM sqlite_master WHERE type = 'table' AND name = 'books_fts'")) {
+                if (rs.next()) {
+                    definition = rs.getString(1);
+                }
+            }
+            boolean exists = definition != null;
+            if (exists && !definition.contains("content_rowid='id'")) {
+                // An index keyed on the implicit rowid cannot be trusted; start over
+                stmt.execute("DROP TRIGGER IF EXISTS books_fts_insert");
+                stmt.execute("DROP TRIGGER IF EXISTS books_fts_delete");
+                stmt.execute("DROP TRIGGER IF EXISTS books_fts_update");
+                stmt.execute("DROP TABLE books_fts");
+                exists = false;
+            }
 
-            // Common fields
-            pstmt.setString(1, (String) profile.get("isbn"));
-            pstmt.setString(2, (String) profile.get("title"));
-            pstmt.setString(3, (String) profile.get("author"));
-            pstmt.setInt(4, (int) profile.get("publication_year"));
-            pstmt.setInt(5, (int) profile.get("copies"));
-            pstmt.setInt(6, (boolean) profile.get("available") ? 1 : 0);
-            pstmt.setString(7, (String) profile.get("book_type"));
-
-            // EBook fields (nullable)
-            setNullable(pstmt, 8, profile.get("file_size_mb"));
-            setNullable(pstmt, 9, profile.get("format"));
-            setNullable(pstmt, 10, profile.get("download_link"));
-            setNullable(pstmt, 11, profile.get("drm_protected"));
-
-            // PrintedBook fields (nullable)
-            setNullable(pstmt, 12, profile.get("shelf_location"));
-            setNullable(pstmt, 13, profile.get("condition"));
-            setNullable(pstmt, 14, profile.get("edition"));
+            stmt.execute("""
+                CREATE VIRTUAL TABLE IF NOT EXISTS books_fts
+                USING fts5(title, author, content='books', content_rowid='id')
+            """);
+            for (String trigger : statements) {
+                stmt.execute(trigger);
+            }
+            if (!exists) {
+                // Index the rows that were there before the triggers
+                stmt.execute("INSERT INTO books_fts(books_fts) VALUES ('rebuild')");
+            }
+            LOG.info("✅ Full-text search enabled (FTS5)");
+            return true;
 
+        } catch (SQLException e) {
+            LOG.error("❌ Full-text search unavailable, using LIKE search: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void save(Book book) {
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(UPSERT_SQL)) {
+
+            BookRowMapper.bind(pstmt, book);
             pstmt.executeUpdate();
-            System.out.println("✅ Book saved: " + book.getTitle());
+            MODIFICATIONS.incrementAndGet();
+            LOG.debug(() -> "✅ Book saved: " + book.getTitle());
 
         } catch (SQLException e) {
-            System.err.println("❌ Error saving book: " + e.getMessage());
+            LOG.error("❌ Error saving book: " + e.getMessage());
         }
     }
 
-    private void setNullable(PreparedStatement pstmt, int index, Object value) throws SQLException {
-        if (value != null) {
-            if (value instanceof String) pstmt.setString(index, (String) value);
-            else if (value instanceof Integer) pstmt.setInt(index, (Integer) value);
-            else if (value instanceof Double) pstmt.setDouble(index, (Double) value);
-            else if (value instanceof Boolean) pstmt.setBoolean(index, (Boolean) value);
-            else pstmt.setObject(index, value);
-        } else {
-            pstmt.setNull(index, Types.NULL);
+    // One transaction and one JDBC batch for the whole list; all or nothing
+    @Override
+    public int saveAll(List<Book> books) {
+        if (books.isEmpty()) {
+            return 0;
         }
+
+        try (Connection conn = DatabaseManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(UPSERT_SQL)) {
+                for (Book book : books) {
+                    BookRowMapper.bind(pstmt, book);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+                conn.commit();
+                MODIFICATIONS.incrementAndGet();
+                return books.size();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+        } catch (SQLException e) {
+            LOG.error("❌ Error saving " + books.size() + " books: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    @Override
+    public Set<String> findExistingIsbns(Collection<String> isbns) {
+        Set<String> existing = new HashSet<>();
+        List<String> pending = new ArrayList<>(isbns);
+
+        try (Connection conn = DatabaseManager.getConnection()) {
+            for (int start = 0; start < pending.size(); start += LOOKUP_CHUNK_SIZE) {
+                List<String> chunk = pending.subList(start, Math.min(start + LOOKUP_CHUNK_SIZE, pending.size()));
+                String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+                String sql = "SELECT isbn FROM books WHERE isbn IN (" + placeholders + ")";
+
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        pstmt.setString(i + 1, chunk.get(i));
+                    }
+                    ResultSet rs = pstmt.executeQuery();
+                    while (rs.next()) {
+                        existing.add(rs.getString(1));
+                    }
+                }
+            }
+
+        } catch (SQLException e) {
+            LOG.error("❌ Error checking existing books: " + e.getMessage());
+        }
+        return existing;
     }
 
     @Override
     public Book findById(String isbn) {
-        String sql = "SELECT * FROM books WHERE isbn = ?";
+        String sql = "SELECT " + BookRowMapper.COLUMNS + " FROM books WHERE isbn = ?";
 
         try (Connection conn = DatabaseManager.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -79,30 +207,152 @@ public class SQLiteBookRepository implements BookRepository {
             ResultSet rs = pstmt.executeQuery();
 
             if (rs.next()) {
-                return resultSetToBook(rs);
+                return BookRowMapper.read(rs);
             }
 
         } catch (SQLException e) {
-            System.err.println("❌ Error finding book: " + e.getMessage());
+            LOG.error("❌ Error finding book: " + e.getMessage());
         }
         return null;
     }
 
+    // Chunked IN lookups instead of one query per ISBN
+    @Override
+    public List<Book> findByIds(List<String> isbns) {
+        Map<String, Book> byIsbn = new HashMap<>();
+
+        try (Connection conn = DatabaseManager.getConnection()) {
+            for (int start = 0; start < isbns.size(); start += LOOKUP_CHUNK_SIZE) {
+                List<String> chunk = isbns.subList(start, Math.min(start + LOOKUP_CHUNK_SIZE, isbns.size()));
+                String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+                String sql = "SELECT " + BookRowMapper.COLUMNS + " FROM books WHERE isbn IN (" + placeholders + ")";
+
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        pstmt.setString(i + 1, chunk.get(i));
+                    }
+                    ResultSet rs = pstmt.executeQuery();
+                    while (rs.next()) {
+                        Book book = BookRowMapper.read(rs);
+                        byIsbn.put(book.getIsbn(), book);
+                    }
+                }
+            }
+
+        } catch (SQLException e) {
+            LOG.error("❌ Error finding books: " + e.getMessage());
+        }
+
+        List<Book> books = new ArrayList<>(byIsbn.size());
+        for (String isbn : isbns) {
+            Book book = byIsbn.get(isbn);
+            if (book != null) {
+                books.add(book);
+            }
+        }
+        return books;
+    }
+
     @Override
     public List<Book> findAll() {
         List<Book> books = new ArrayList<>();
-        String sql = "SELECT * FROM books ORDER BY title";
+        String sql = "SELECT " + BookRowMapper.COLUMNS + " FROM books ORDER BY title, isbn";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                books.add(BookRowMapper.read(rs));
+            }
+
+        } catch (SQLException e) {
+            LOG.error("❌ Error finding all books: " + e.getMessage());
+        }
+        return books;
+    }
+
+    @Override
+    public int count() {
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM books")) {
+
+            return rs.next() ? rs.getInt(1) : 0;
+
+        } catch (SQLException e) {
+            LOG.error("❌ Error counting books: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    // idx_books_title serves the ORDER BY, so a page reads only its own rows plus the skipped ones
+    @Override
+    public List<Book> findPage(int offset, int limit) {
+        List<Book> books = new ArrayList<>();
+        String sql = "SELECT " + BookRowMapper.COLUMNS + " FROM books ORDER BY title, isbn LIMIT ? OFFSET ?";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, limit);
+            pstmt.setInt(2, offset);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                books.add(BookRowMapper.read(rs));
+            }
+
+        } catch (SQLException e) {
+            LOG.error("❌ Error finding books: " + e.getMessage());
+        }
+        return books;
+    }
+
+    // Uses the primary key, so every page is an index seek
+    @Override
+    public List<Book> findPage(String afterIsbn, int limit) {
+        List<Book> books = new ArrayList<>();
+        String sql = afterIsbn == null
+                ? "SELECT " + BookRowMapper.COLUMNS + " FROM books ORDER BY isbn LIMIT ?"
+                : "SELECT " + BookRowMapper.COLUMNS + " FROM books WHERE isbn > ? ORDER BY isbn LIMIT ?";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            int index = 1;
+            if (afterIsbn != null) {
+                pstmt.setString(index++, afterIsbn);
+            }
+            pstmt.setInt(index, limit);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                books.add(BookRowMapper.read(rs));
+            }
+
+        } catch (SQLException e) {
+            LOG.error("❌ Error finding books: " + e.getMessage());
+        }
+        return books;
+    }
+
+    // Served by the partial index idx_books_available
+    @Override
+    public List<Book> findAvailable() {
+        List<Book> books = new ArrayList<>();
+        String sql = "SELECT " + BookRowMapper.COLUMNS + " FROM books WHERE available = 1 AND copies > 0 ORDER BY title, isbn";
 
         try (Connection conn = DatabaseManager.getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
-                books.add(resultSetToBook(rs));
+                books.add(BookRowMapper.read(rs));
             }
 
         } catch (SQLException e) {
-            System.err.println("❌ Error finding all books: " + e.getMessage());
+            LOG.error("❌ Error finding available books: " + e.getMessage());
         }
         return books;
     }
@@ -116,21 +366,69 @@ public class SQLiteBookRepository implements BookRepository {
 
             pstmt.setString(1, isbn);
             int rows = pstmt.executeUpdate();
+            if (rows > 0) {
+                MODIFICATIONS.incrementAndGet();
+            }
             return rows > 0;
 
         } catch (SQLException e) {
-            System.err.println("❌ Error deleting book: " + e.getMessage());
+            LOG.error("❌ Error deleting book: " + e.getMessage());
             return false;
         }
     }
 
     @Override
     public boolean update(Book book) {
-        // Save uses INSERT OR REPLACE which updates
+        // Save is an upsert, so it updates existing rows
         save(book);
         return true;
     }
 
+    // A single conditional UPDATE, so two terminals can never both take the last
+    // copy. available only marks withdrawn books; the count alone tracks loans.
+    @Override
+    public boolean tryReserveCopy(String isbn) {
+        String sql = "UPDATE books SET copies = copies - 1 WHERE isbn = ? AND copies > 0 AND available = 1";
+        return updateCopies(sql, isbn);
+    }
+
+    @Override
+    public boolean releaseCopy(String isbn) {
+        String sql = "UPDATE books SET copies = copies + 1 WHERE isbn = ?";
+        return updateCopies(sql, isbn);
+    }
+
+    @Override
+    public boolean adjustCopies(String isbn, int delta) {
+        String sql = "UPDATE books SET copies = copies + ? WHERE isbn = ? AND copies + ? >= 0";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, delta);
+            pstmt.setString(2, isbn);
+            pstmt.setInt(3, delta);
+            return pstmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            LOG.error("❌ Error updating copies: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean updateCopies(String sql, String isbn) {
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, isbn);
+            return pstmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            LOG.error("❌ Error updating copies: " + e.getMessage());
+            return false;
+        }
+    }
+
     @Override
     public List<Book> findByTitle(String title) {
         return searchByColumn("title", title);
@@ -141,50 +439,111 @@ public class SQLiteBookRepository implements BookRepository {
         return searchByColumn("author", author);
     }
 
-    private List<Book> searchByColumn(String column, String value) {
+    @Override
+    public long modificationCount() {
+        return MODIFICATIONS.get();
+    }
+
+    @Override
+    public boolean supportsFullTextSearch() {
+        return fullTextSearch;
+    }
+
+    // Every query word must prefix-match a word in the title or author, best
+    // matches first (FTS5's bm25 rank).
+    @Override
+    public List<Book> search(String query) {
+        // A negative LIMIT is no limit in SQLite
+        return search(query, -1);
+    }
+
+    @Override
+    public List<Book> search(String query, int limit) {
+        String match = toMatchExpression(query);
+        if (!fullTextSearch || match == null) {
+            return likeSearch(query, limit < 0 ? Integer.MAX_VALUE : limit);
+        }
+
         List<Book> books = new ArrayList<>();
-        String sql = "SELECT * FROM books WHERE " + column + " LIKE ? ORDER BY title";
+        String sql = """
+            SELECT %s FROM books_fts f
+            JOIN books b ON b.id = f.rowid
+            WHERE books_fts MATCH ?
+            ORDER BY f.rank
+            LIMIT ?
+        """.formatted(BookRowMapper.QUALIFIED_COLUMNS);
 
         try (Connection conn = DatabaseManager.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            pstmt.setString(1, "%" + value + "%");
+            pstmt.setString(1, match);
+            pstmt.setInt(2, limit);
             ResultSet rs = pstmt.executeQuery();
 
             while (rs.next()) {
-                books.add(resultSetToBook(rs));
+                books.add(BookRowMapper.read(rs));
             }
 
         } catch (SQLException e) {
-            System.err.println("❌ Error searching books: " + e.getMessage());
+            LOG.error("❌ Error searching books: " + e.getMessage());
         }
         return books;
     }
 
-    private Book resultSetToBook(ResultSet rs) throws SQLException {
-        Map<String, Object> data = new HashMap<>();
-
-
-        data.put("isbn", rs.getString("isbn"));
-        data.put("title", rs.getString("title"));
-        data.put("author", rs.getString("author"));
-        data.put("publication_year", rs.getInt("publication_year"));
-        data.put("copies", rs.getInt("copies"));
-        data.put("available", rs.getInt("available") == 1);
-        data.put("book_type", rs.getString("book_type"));
+    // Each word becomes a quoted prefix term, so FTS5 syntax in user input is inert
+    private static String toMatchExpression(String query) {
+        List<String> words = TokenIndex.tokenize(query);
+        if (words.isEmpty()) {
+            return null;
+        }
+        StringBuilder match = new StringBuilder();
+        for (String word : words) {
+            if (match.length() > 0) {
+                match.append(' ');
+            }
+            match.append('"').append(word).append("\"*");
+        }
+        return match.toString();
+    }
 
+    // Title matches, then author matches, one entry per ISBN. Not the interface
+    // default: that calls search(query), which lands back in search(query, limit).
+    private List<Book> likeSearch(String query, int limit) {
+        Map<String, Book> matches = new LinkedHashMap<>();
+        for (Book book : findByTitle(query)) {
+            if (matches.size() == limit) {
+                break;
+            }
+            matches.putIfAbsent(book.getIsbn(), book);
+        }
+        if (matches.size() < limit) {
+            for (Book book : findByAuthor(query)) {
+                if (matches.size() == limit) {
+                    break;
+                }
+                matches.putIfAbsent(book.getIsbn(), book);
+            }
+        }
+        return new ArrayList<>(matches.values());
+    }
 
-        data.put("file_size_mb", rs.getObject("file_size_mb"));
-        data.put("format", rs.getObject("format"));
-        data.put("download_link", rs.getObject("download_link"));
-        data.put("drm_protected", rs.getObject("drm_protected"));
+    private List<Book> searchByColumn(String column, String value) {
+        List<Book> books = new ArrayList<>();
+        String sql = "SELECT " + BookRowMapper.COLUMNS + " FROM books WHERE " + column + " LIKE ? ORDER BY title";
 
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-        data.put("shelf_location", rs.getObject("shelf_location"));
-        data.put("condition", rs.getObject("condition"));
-        data.put("edition", rs.getObject("edition"));
+            pstmt.setString(1, "%" + value + "%");
+            ResultSet rs = pstmt.executeQuery();
 
+            while (rs.next()) {
+                books.add(BookRowMapper.read(rs));
+            }
 
-        return Book.fromMap(data);
+        } catch (SQLException e) {
+            LOG.error("❌ Error searching books: " + e.getMessage());
+        }
+        return books;
     }
 }
\ No newline at end of file
@@ -0,0 +1,200 @@
+package repository;
+
+import model.Book;
+import model.Loan;
+import model.LoanStatus;
+import model.Member;
+import model.User;
+import util.DatabaseManager;
+import util.Logger;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Dates are stored as ISO-8601 text, so they sort correctly and the
+// (user_id, status) and (status, due_date) indexes answer "my loans" and
+// "overdue as of" as index range scans. Books come back in the same query;
+// members are resolved once the connection is back in the pool, and the same
+// Member is handed out for every loan of a user so fines and loan counts stick.
+public class SQLiteLoanRepository implements LoanRepository {
+    private static final Logger LOG = Logger.get("repository.loans");
+
+    // Book columns first, so BookRowMapper's positions line up
+    private static final String SELECT = """
+        SELECT %s, l.id AS loan_id, l.user_id, l.borrow_date, l.due_date, l.return_date, l.status, l.fine_amount
+        FROM loans l
+        JOIN books b ON b.isbn = l.book_isbn
+    """.formatted(BookRowMapper.QUALIFIED_COLUMNS);
+
+    private UserRepository userRepository;
+    private Map<String, Member> members;
+
+    public SQLiteLoanRepository(UserRepository userRepository) {
+        this.userRepository = userRepository;
+        this.members = new ConcurrentHashMap<>();
+    }
+
+    // Throws IllegalStateException when the row could not be written
+    @Override
+    public void save(Loan loan) {
+        if (!write(loan)) {
+            throw new IllegalStateException("Could not save loan " + loan.getLoanId());
+        }
+    }
+
+    private boolean write(Loan loan) {
+        String sql = """
+            INSERT INTO loans (id, user_id, book_isbn, borrow_date, due_date, return_date, status, fine_amount)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT(id) DO UPDATE SET
+                due_date = excluded.due_date,
+                return_date = excluded.return_date,
+                status = excluded.status,
+                fine_amount = excluded.fine_amount
+        """;
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, loan.getLoanId());
+            pstmt.setString(2, loan.getMember().getId());
+            pstmt.setString(3, loan.getBook().getIsbn());
+            pstmt.setString(4, loan.getBorrowDate().toString());
+            pstmt.setString(5, loan.getDueDate().toString());
+            pstmt.setString(6, loan.getReturnDate() != null ? loan.getReturnDate().toString() : null);
+            pstmt.setString(7, loan.getStatus().name());
+            pstmt.setDouble(8, loan.getFineAmount());
+            pstmt.executeUpdate();
+            members.put(loan.getMember().getId(), loan.getMember());
+            return true;
+
+        } catch (SQLException e) {
+            LOG.error("❌ Error saving loan: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public Loan findById(String loanId) {
+        List<Loan> loans = query(SELECT + " WHERE l.id = ?", loanId);
+        return loans.isEmpty() ? null : loans.get(0);
+    }
+
+    @Override
+    public List<Loan> findAll() {
+        return query(SELECT + " ORDER BY l.borrow_date");
+    }
+
+    @Override
+    public boolean delete(String loanId) {
+        String sql = "DELETE FROM loans WHERE id = ?";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, loanId);
+            return pstmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            LOG.error("❌ Error deleting loan: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public boolean update(Loan loan) {
+        return write(loan);
+    }
+
+    @Override
+    public List<Loan> findActiveByMember(String memberId) {
+        return query(SELECT + " WHERE l.user_id = ? AND l.status = ?",
+                memberId, LoanStatus.ACTIVE.name());
+    }
+
+    @Override
+    public List<Loan> findOverdue(LocalDate asOf) {
+        return query(SELECT + " WHERE l.status = ? AND l.due_date < ? ORDER BY l.due_date",
+                LoanStatus.ACTIVE.name(), asOf.toString());
+    }
+
+    private List<Loan> query(String sql, String... params) {
+        List<LoanRow> rows = new ArrayList<>();
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            for (int i = 0; i < params.length; i++) {
+                pstmt.setString(i + 1, params[i]);
+            }
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                rows.add(new LoanRow(rs));
+            }
+
+        } catch (SQLException e) {
+            LOG.error("❌ Error finding loans: " + e.getMessage());
+        }
+
+        // One lookup per distinct member, after the connection has been released
+        Map<String, Member> resolved = new HashMap<>();
+        List<Loan> loans = new ArrayList<>(rows.size());
+        for (LoanRow row : rows) {
+            Member member = resolved.computeIfAbsent(row.userId, this::findMember);
+            if (member == null) {
+                LOG.warn("⚠️ Skipping loan " + row.loanId + ": member no longer exists");
+                continue;
+            }
+            Loan loan = new Loan(row.loanId, row.book, member, row.borrowDate, row.dueDate,
+                    row.returnDate, row.status);
+            loan.setFineAmount(row.fineAmount);
+            loans.add(loan);
+        }
+        return loans;
+    }
+
+    private Member findMember(String userId) {
+        Member known = members.get(userId);
+        if (known != null) {
+            return known;
+        }
+        User user = userRepository.findById(userId);
+        if (user == null) {
+            return null;
+        }
+        Member member = user instanceof Member
+                ? (Member) user
+                : new Member(user.getId(), user.getName(), user.getEmail(), user.getMobile(),
+                        user.getUsername(), user.getPasswordHash(), user.getId());
+        Member raced = members.putIfAbsent(userId, member);
+        return raced != null ? raced : member;
+    }
+
+    private static class LoanRow {
+        final String loanId;
+        final String userId;
+        final Book book;
+        final LocalDate borrowDate;
+        final LocalDate dueDate;
+        final LocalDate returnDate;
+        final LoanStatus status;
+        final double fineAmount;
+
+        LoanRow(ResultSet rs) throws SQLException {
+            this.book = BookRowMapper.read(rs);
+            this.loanId = rs.getString("loan_id");
+            this.userId = rs.getString("user_id");
+            this.borrowDate = LocalDate.parse(rs.getString("borrow_date"));
+            this.dueDate = LocalDate.parse(rs.getString("due_date"));
+            String returned = rs.getString("return_date");
+            this.returnDate = returned != null ? LocalDate.parse(returned) : null;
+            this.status = LoanStatus.valueOf(rs.getString("status"));
+            this.fineAmount = rs.getDouble("fine_amount");
+        }
+    }
+}
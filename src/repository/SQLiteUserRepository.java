@@ -3,86 +3,439 @@ package repository;
 import model.User;
 import model.UserRole;
 import util.DatabaseManager;
+import util.Logger;
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
+// Users live in the SQLite users table. Lookups go through a read-through cache
+// and hit the UNIQUE username/email indexes on a miss, so nothing is preloaded.
+// Writes go through a single writer thread that commits whatever has queued up
+// in one transaction, and each caller waits for its own write to commit, so
+// concurrent writers share a commit without anyone being told a write landed
+// when it did not. A failed write drops the cache entry, so the next read comes
+// from the table. Without the SQLite driver the cache is the store.
 public class SQLiteUserRepository implements UserRepository {
+    private static final Logger LOG = Logger.get("repository.users");
 
-    private static final Map<String, User> IN_MEMORY_USERS = new HashMap<>();
 
-    static {
+    private static final int WRITE_BATCH_SIZE = 500;
+    private static final long FLUSH_TIMEOUT_SECONDS = 10;
 
-        User admin = new User("admin001", "Admin User", "admin@lib.com", "555-0000", "admin", "admin123", UserRole.ADMIN) {};
-        User librarian = new User("lib001", "Librarian User", "lib@lib.com", "555-0001", "librarian", "lib123", UserRole.LIBRARIAN) {};
-        User member = new User("mem001", "Member User", "member@lib.com", "555-0002", "member", "mem123", UserRole.MEMBER) {};
+    private static final String COLUMNS = "id, name, email, mobile, username, password_hash, role, is_active";
 
-        IN_MEMORY_USERS.put("admin001", admin);
-        IN_MEMORY_USERS.put("lib001", librarian);
-        IN_MEMORY_USERS.put("mem001", member);
+    private static final String UPSERT_SQL = """
+        INSERT INTO users (id, name, email, mobile, username, password_hash, role, is_active)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+        ON CONFLICT(id) DO UPDATE SET
+            name = excluded.name,
+            email = excluded.email,
+            mobile = excluded.mobile,
+            username = excluded.username,
+            password_hash = excluded.password_hash,
+            role = excluded.role,
+            is_active = excluded.is_active
+    """;
 
-        IN_MEMORY_USERS.put("admin", admin);
-        IN_MEMORY_USERS.put("librarian", librarian);
-        IN_MEMORY_USERS.put("member", member);
-    }
+    private static final String DELETE_SQL = "DELETE FROM users WHERE id = ?";
+
+    private static final UserIndex IN_MEMORY_USERS = new UserIndex();
+    private static final BlockingQueue<PendingWrite> PENDING_WRITES = new LinkedBlockingQueue<>();
+    private static final Set<String> PENDING_DELETES = ConcurrentHashMap.newKeySet();
+    private static volatile Thread writer;
+    private static boolean demoUsersLoaded;
 
     public SQLiteUserRepository() {
-        System.out.println("✅ User repository ready (in-memory mode)");
+        if (DatabaseManager.isAvailable()) {
+            startWriter();
+            LOG.info("✅ User repository ready (SQLite)");
+        } else {
+            loadDemoUsers();
+            LOG.info("✅ User repository ready (in-memory mode)");
+        }
     }
 
+    private static synchronized void loadDemoUsers() {
+        if (demoUsersLoaded) {
+            return;
+        }
+        IN_MEMORY_USERS.put(new User("admin001", "Admin User", "admin@lib.com", "555-0000", "admin", "admin123", UserRole.ADMIN) {});
+        IN_MEMORY_USERS.put(new User("lib001", "Librarian User", "lib@lib.com", "555-0001", "librarian", "lib123", UserRole.LIBRARIAN) {});
+        IN_MEMORY_USERS.put(new User("mem001", "Member User", "member@lib.com", "555-0002", "member", "mem123", UserRole.MEMBER) {});
+        demoUsersLoaded = true;
+    }
+
+    // Throws IllegalStateException when the row could not be written
     @Override
     public void save(User user) {
-
-        IN_MEMORY_USERS.put(user.getId(), user);
-        IN_MEMORY_USERS.put(user.getUsername(), user);
-        System.out.println("✅ User saved to memory: " + user.getUsername());
+        IN_MEMORY_USERS.put(user);
+        if (DatabaseManager.isAvailable()) {
+            PENDING_DELETES.remove(user.getId());
+            PendingWrite write = PendingWrite.save(user);
+            PENDING_WRITES.add(write);
+            if (!awaitCommit(write)) {
+                IN_MEMORY_USERS.remove(user.getId());
+                throw new IllegalStateException("Could not save user " + user.getUsername());
+            }
+        }
+        LOG.debug(() -> "✅ User saved: " + user.getUsername());
     }
 
     @Override
     public User findById(String id) {
-        return IN_MEMORY_USERS.get(id);
+        User cached = IN_MEMORY_USERS.findById(id);
+        if (cached != null || !DatabaseManager.isAvailable()) {
+            return cached;
+        }
+        return loadUser("id = ?", id);
     }
 
     @Override
     public User findByUsername(String username) {
-        return IN_MEMORY_USERS.get(username);
+        User cached = IN_MEMORY_USERS.findByUsername(username);
+        if (cached != null || !DatabaseManager.isAvailable()) {
+            return cached;
+        }
+        User loaded = loadUser("username = ?", username);
+        return loaded != null && loaded.getUsername().equals(username) ? loaded : null;
     }
 
     @Override
     public User findByEmail(String email) {
-        for (User u : IN_MEMORY_USERS.values()) {
-            if (u.getEmail().equalsIgnoreCase(email)) {
-                return u;
-            }
+        User cached = IN_MEMORY_USERS.findByEmail(email);
+        if (cached != null || !DatabaseManager.isAvailable()) {
+            return cached;
         }
-        return null;
+        User loaded = loadUser("email = ? COLLATE NOCASE", email);
+        return loaded != null && loaded.getEmail().equalsIgnoreCase(email) ? loaded : null;
     }
 
     @Override
     public List<User> findAll() {
-        Set<User> uniqueUsers = new HashSet<>();
-        for (Map.Entry<String, User> entry : IN_MEMORY_USERS.entrySet()) {
-            if (entry.getKey().equals(entry.getValue().getId())) {
-                uniqueUsers.add(entry.getValue());
+        if (!DatabaseManager.isAvailable()) {
+            return new ArrayList<>(IN_MEMORY_USERS.values());
+        }
+
+        flush();
+        List<User> users = new ArrayList<>();
+        String sql = "SELECT " + COLUMNS + " FROM users";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                User user = resultSetToUser(rs);
+                User cached = IN_MEMORY_USERS.findById(user.getId());
+                users.add(cached != null ? cached : user);
             }
+
+        } catch (SQLException e) {
+            LOG.error("❌ Error finding all users: " + e.getMessage());
+        }
+        return users;
+    }
+
+    @Override
+    public int count() {
+        if (!DatabaseManager.isAvailable()) {
+            return IN_MEMORY_USERS.size();
+        }
+
+        flush();
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM users")) {
+
+            return rs.next() ? rs.getInt(1) : 0;
+
+        } catch (SQLException e) {
+            LOG.error("❌ Error counting users: " + e.getMessage());
+            return 0;
         }
-        return new ArrayList<>(uniqueUsers);
+    }
+
+    @Override
+    public List<User> findPage(int offset, int limit) {
+        if (!DatabaseManager.isAvailable()) {
+            return IN_MEMORY_USERS.page(offset, limit);
+        }
+
+        flush();
+        List<User> users = new ArrayList<>();
+        String sql = "SELECT " + COLUMNS + " FROM users ORDER BY id LIMIT ? OFFSET ?";
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, limit);
+            pstmt.setInt(2, offset);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                User user = resultSetToUser(rs);
+                User cached = IN_MEMORY_USERS.findById(user.getId());
+                users.add(cached != null ? cached : user);
+            }
+
+        } catch (SQLException e) {
+            LOG.error("❌ Error finding users: " + e.getMessage());
+        }
+        return users;
     }
 
     @Override
     public boolean delete(String id) {
-        User user = IN_MEMORY_USERS.remove(id);
-        if (user != null) {
-            IN_MEMORY_USERS.remove(user.getUsername());
-            return true;
+        if (!DatabaseManager.isAvailable()) {
+            return IN_MEMORY_USERS.remove(id) != null;
         }
-        return false;
+
+        if (findById(id) == null) {
+            return false;
+        }
+        // Mark first so a concurrent cache miss cannot reload the row before it is gone
+        PENDING_DELETES.add(id);
+        IN_MEMORY_USERS.remove(id);
+        PendingWrite write = PendingWrite.delete(id);
+        PENDING_WRITES.add(write);
+        return awaitCommit(write);
     }
 
     @Override
     public boolean update(User user) {
-        IN_MEMORY_USERS.put(user.getId(), user);
-        IN_MEMORY_USERS.put(user.getUsername(), user);
-        return true;
+        try {
+            save(user);
+            return true;
+        } catch (IllegalStateException e) {
+            LOG.error("❌ " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Blocks until everything queued so far has been committed.
+    public static void flush() {
+        if (writer == null) {
+            return;
+        }
+        PendingWrite marker = PendingWrite.flush();
+        PENDING_WRITES.add(marker);
+        try {
+            if (!marker.done.await(FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                LOG.error("❌ Timed out waiting for queued user writes");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
-}
\ No newline at end of file
+    private static boolean awaitCommit(PendingWrite write) {
+        try {
+            if (!write.done.await(FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                LOG.error("❌ Timed out waiting for user write " + write.id);
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return write.committed;
+    }
+
+    private User loadUser(String condition, String value) {
+        if (value == null) {
+            return null;
+        }
+        String sql = "SELECT " + COLUMNS + " FROM users WHERE " + condition;
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, value);
+            ResultSet rs = pstmt.executeQuery();
+            if (!rs.next()) {
+                return null;
+            }
+
+            User loaded = resultSetToUser(rs);
+            if (PENDING_DELETES.contains(loaded.getId())) {
+                return null;
+            }
+            // The cached copy may be newer than the row if its write is still queued
+            User cached = IN_MEMORY_USERS.findById(loaded.getId());
+            if (cached != null) {
+                return cached;
+            }
+            IN_MEMORY_USERS.put(loaded);
+            return loaded;
+
+        } catch (SQLException e) {
+            LOG.error("❌ Error finding user: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private User resultSetToUser(ResultSet rs) throws SQLException {
+        User user = new User(
+                rs.getString("id"),
+                rs.getString("name"),
+                rs.getString("email"),
+                rs.getString("mobile"),
+                rs.getString("username"),
+                rs.getString("password_hash"),
+                UserRole.valueOf(rs.getString("role"))
+        ) {};
+        user.setActive(rs.getBoolean("is_active"));
+        return user;
+    }
+
+    private static synchronized void startWriter() {
+        if (writer != null) {
+            return;
+        }
+        writer = new Thread(SQLiteUserRepository::runWriter, "user-writer");
+        writer.setDaemon(true);
+        writer.start();
+        DatabaseManager.addShutdownTask(SQLiteUserRepository::flush);
+    }
+
+    private static void runWriter() {
+        List<PendingWrite> batch = new ArrayList<>(WRITE_BATCH_SIZE);
+        while (true) {
+            try {
+                batch.add(PENDING_WRITES.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            PENDING_WRITES.drainTo(batch, WRITE_BATCH_SIZE - 1);
+            try {
+                writeBatch(batch);
+            } catch (RuntimeException e) {
+                // Whatever went wrong, the writer must outlive it
+                LOG.error("❌ Error writing users: " + e);
+            } finally {
+                for (PendingWrite write : batch) {
+                    if (write.type == PendingWrite.DELETE) {
+                        PENDING_DELETES.remove(write.id);
+                    }
+                    write.done.countDown();
+                }
+                batch.clear();
+            }
+        }
+    }
+
+    // One transaction per batch. If the batch fails (e.g. a UNIQUE violation),
+    // the rows are retried one by one so a single bad row does not sink the rest;
+    // only writes that actually committed are marked so.
+    private static void writeBatch(List<PendingWrite> batch) {
+        try (Connection conn = DatabaseManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                executeInOrder(conn, batch);
+                conn.commit();
+                for (PendingWrite write : batch) {
+                    write.committed = true;
+                }
+                return;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+            for (PendingWrite write : batch) {
+                if (write.type == PendingWrite.FLUSH) {
+                    continue;
+                }
+                try {
+                    executeInOrder(conn, List.of(write));
+                    write.committed = true;
+                } catch (SQLException | RuntimeException e) {
+                    LOG.error("❌ Error saving user " + write.id + ": " + e.getMessage());
+                }
+            }
+        } catch (SQLException e) {
+            LOG.error("❌ Error writing users: " + e.getMessage());
+        }
+    }
+
+    // Consecutive writes of the same kind share one JDBC batch; switching kinds
+    // flushes the batch so saves and deletes stay in queue order.
+    private static void executeInOrder(Connection conn, List<PendingWrite> writes) throws SQLException {
+        try (PreparedStatement upsert = conn.prepareStatement(UPSERT_SQL);
+             PreparedStatement delete = conn.prepareStatement(DELETE_SQL)) {
+
+            int pendingType = PendingWrite.FLUSH;
+            for (PendingWrite write : writes) {
+                if (write.type == PendingWrite.FLUSH) {
+                    continue;
+                }
+                if (write.type != pendingType) {
+                    executePending(pendingType, upsert, delete);
+                    pendingType = write.type;
+                }
+                if (write.type == PendingWrite.SAVE) {
+                    bindUser(upsert, write.user);
+                    upsert.addBatch();
+                } else {
+                    delete.setString(1, write.id);
+                    delete.addBatch();
+                }
+            }
+            executePending(pendingType, upsert, delete);
+        }
+    }
+
+    private static void executePending(int type, PreparedStatement upsert, PreparedStatement delete) throws SQLException {
+        if (type == PendingWrite.SAVE) {
+            upsert.executeBatch();
+        } else if (type == PendingWrite.DELETE) {
+            delete.executeBatch();
+        }
+    }
+
+    private static void bindUser(PreparedStatement pstmt, User user) throws SQLException {
+        pstmt.setString(1, user.getId());
+        pstmt.setString(2, user.getName());
+        pstmt.setString(3, user.getEmail());
+        pstmt.setString(4, user.getMobile());
+        pstmt.setString(5, user.getUsername());
+        pstmt.setString(6, user.getPasswordHash());
+        pstmt.setString(7, user.getRole().name());
+        pstmt.setBoolean(8, user.isActive());
+    }
+
+    private static class PendingWrite {
+        static final int FLUSH = 0;
+        static final int SAVE = 1;
+        static final int DELETE = 2;
+
+        final int type;
+        final String id;
+        final User user;
+        final CountDownLatch done = new CountDownLatch(1);
+        volatile boolean committed;
+
+        private PendingWrite(int type, String id, User user) {
+            this.type = type;
+            this.id = id;
+            this.user = user;
+        }
+
+        static PendingWrite save(User user) {
+            return new PendingWrite(SAVE, user.getId(), user);
+        }
+
+        static PendingWrite delete(String id) {
+            return new PendingWrite(DELETE, id, null);
+        }
+
+        static PendingWrite flush() {
+            return new PendingWrite(FLUSH, null, null);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Inverted index from lower-cased word tokens to record keys. Every suffix of a
+// token is indexed, so "tokens containing q" is the sorted range of suffixes
+// starting with q rather than a scan of the vocabulary. Lookups return
+// candidate keys only; callers still verify the full substring match.
+class TokenIndex {
+    private final NavigableMap<String, Set<String>> suffixes = new TreeMap<>();
+    private final Map<String, List<String>> tokensByKey = new HashMap<>();
+
+    void put(String key, String text) {
+        remove(key);
+        List<String> tokens = tokenize(text);
+        tokensByKey.put(key, tokens);
+        for (String token : tokens) {
+            for (int i = 0; i < token.length(); i++) {
+                suffixes.computeIfAbsent(token.substring(i), t -> new HashSet<>()).add(key);
+            }
+        }
+    }
+
+    void remove(String key) {
+        List<String> tokens = tokensByKey.remove(key);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            for (int i = 0; i < token.length(); i++) {
+                String suffix = token.substring(i);
+                Set<String> keys = suffixes.get(suffix);
+                if (keys != null) {
+                    keys.remove(key);
+                    if (keys.isEmpty()) {
+                        suffixes.remove(suffix);
+                    }
+                }
+            }
+        }
+    }
+
+    // Returns null when the query has no word characters and cannot be answered from the index.
+    Set<String> candidates(String query) {
+        List<String> queryTokens = tokenize(query);
+        if (queryTokens.isEmpty()) {
+            return null;
+        }
+
+        Set<String> result = null;
+        for (String queryToken : queryTokens) {
+            Set<String> matches = new HashSet<>();
+            for (Set<String> keys : suffixes.subMap(queryToken, true, queryToken + '\uffff', false).values()) {
+                matches.addAll(keys);
+            }
+
+            if (result == null) {
+                result = matches;
+            } else {
+                result.retainAll(matches);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        String lower = text.toLowerCase();
+        int start = -1;
+        for (int i = 0; i < lower.length(); i++) {
+            if (Character.isLetterOrDigit(lower.charAt(i))) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        if (start >= 0) {
+            tokens.add(lower.substring(start));
+        }
+        return tokens;
+    }
+}
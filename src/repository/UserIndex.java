@@ -0,0 +1,170 @@
+package repository;
+
+import model.User;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Concurrent hash indexes over users by id, username and (case-insensitive)
+// email. Reads are lock-free; writes lock one of a fixed set of stripes chosen
+// by user id, so writers only contend when they touch the same user.
+//
+// The keys each user was indexed under are remembered, so a User mutated in
+// place and then re-put is moved off its old username/email.
+//
+// values() returns users in the order they were first put, as the LinkedHashMap
+// this replaced did; re-putting a user keeps its place.
+class UserIndex {
+    private static final int STRIPES = 16;
+
+    private final Map<String, User> byId = new ConcurrentHashMap<>();
+    private final Map<String, User> byUsername = new ConcurrentHashMap<>();
+    private final Map<String, User> byEmail = new ConcurrentHashMap<>();
+    private final Map<String, IndexedKeys> keysById = new ConcurrentHashMap<>();
+    // Ids in order, for stable paging; lookups still go through the hash maps
+    private final NavigableSet<String> orderedIds = new ConcurrentSkipListSet<>();
+    private final NavigableMap<Long, String> insertionOrder = new ConcurrentSkipListMap<>();
+    private final Map<String, Long> insertionById = new ConcurrentHashMap<>();
+    private final AtomicLong insertions = new AtomicLong();
+    private final Object[] locks = new Object[STRIPES];
+
+    UserIndex() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    void put(User user) {
+        String id = user.getId();
+        synchronized (lockFor(id)) {
+            unindexKeys(id);
+
+            String username = user.getUsername();
+            String email = normalizeEmail(user.getEmail());
+            if (username != null) {
+                byUsername.put(username, user);
+            }
+            if (email != null) {
+                byEmail.put(email, user);
+            }
+            keysById.put(id, new IndexedKeys(user, username, email));
+            if (byId.put(id, user) == null) {
+                long position = insertions.incrementAndGet();
+                insertionById.put(id, position);
+                insertionOrder.put(position, id);
+            }
+            orderedIds.add(id);
+        }
+    }
+
+    User remove(String id) {
+        synchronized (lockFor(id)) {
+            User removed = byId.remove(id);
+            if (removed != null) {
+                unindexKeys(id);
+                orderedIds.remove(id);
+                Long position = insertionById.remove(id);
+                if (position != null) {
+                    insertionOrder.remove(position);
+                }
+            }
+            return removed;
+        }
+    }
+
+    private void unindexKeys(String id) {
+        IndexedKeys keys = keysById.remove(id);
+        if (keys == null) {
+            return;
+        }
+        // Conditional removes: another user may have claimed the key since
+        if (keys.username != null) {
+            byUsername.remove(keys.username, keys.user);
+        }
+        if (keys.email != null) {
+            byEmail.remove(keys.email, keys.user);
+        }
+    }
+
+    private Object lockFor(String id) {
+        return locks[(id.hashCode() & 0x7fffffff) % STRIPES];
+    }
+
+    User findById(String id) {
+        return id == null ? null : byId.get(id);
+    }
+
+    User findByUsername(String username) {
+        return username == null ? null : byUsername.get(username);
+    }
+
+    User findByEmail(String email) {
+        String key = normalizeEmail(email);
+        return key == null ? null : byEmail.get(key);
+    }
+
+    boolean contains(String id) {
+        return byId.containsKey(id);
+    }
+
+    // Snapshot in insertion order
+    Collection<User> values() {
+        List<User> users = new ArrayList<>(byId.size());
+        for (String id : insertionOrder.values()) {
+            User user = byId.get(id);
+            if (user != null) {
+                users.add(user);
+            }
+        }
+        return users;
+    }
+
+    // Users ordered by id, skipping the first offset
+    List<User> page(int offset, int limit) {
+        List<User> page = new ArrayList<>(Math.min(limit, 1024));
+        Iterator<String> ids = orderedIds.iterator();
+        for (int skipped = 0; skipped < offset && ids.hasNext(); skipped++) {
+            ids.next();
+        }
+        while (page.size() < limit && ids.hasNext()) {
+            User user = byId.get(ids.next());
+            if (user != null) {
+                page.add(user);
+            }
+        }
+        return page;
+    }
+
+    int size() {
+        return byId.size();
+    }
+
+    boolean isEmpty() {
+        return byId.isEmpty();
+    }
+
+    static String normalizeEmail(String email) {
+        return email == null ? null : email.toLowerCase(Locale.ROOT);
+    }
+
+    private static class IndexedKeys {
+        private final User user;
+        private final String username;
+        private final String email;
+
+        IndexedKeys(User user, String username, String email) {
+            this.user = user;
+            this.username = username;
+            this.email = email;
+        }
+    }
+}
@@ -11,4 +11,8 @@ public interface UserRepository {
     List<User> findAll();
     boolean delete(String id);
     boolean update(User user);
+
+    // Ordered by id
+    int count();
+    List<User> findPage(int offset, int limit);
 }
\ No newline at end of file
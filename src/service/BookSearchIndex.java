@@ -0,0 +1,139 @@
+package service;
+
+import model.Book;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Inverted index over book titles and authors. Terms are lower-cased with
+// accents stripped and kept in a sorted map, so a query term matches every
+// indexed term it is a prefix of with one range lookup. Only ISBNs are kept;
+// BookService resolves hits through the repository so copy counts stay fresh.
+class BookSearchIndex {
+    private static final int TITLE = 1;
+    private static final int AUTHOR = 2;
+
+    // Per query term: a title hit outranks an author hit, an exact term a prefix
+    private static final int TITLE_EXACT = 8;
+    private static final int TITLE_PREFIX = 4;
+    private static final int AUTHOR_EXACT = 2;
+    private static final int AUTHOR_PREFIX = 1;
+
+    // term -> isbn -> TITLE/AUTHOR bit mask
+    private final ConcurrentSkipListMap<String, Map<String, Integer>> postings = new ConcurrentSkipListMap<>();
+    private final Map<String, List<String>> termsByIsbn = new ConcurrentHashMap<>();
+    private final Map<String, String> titlesByIsbn = new ConcurrentHashMap<>();
+
+    synchronized void put(Book book) {
+        String isbn = book.getIsbn();
+        remove(isbn);
+
+        Map<String, Integer> fields = new HashMap<>();
+        for (String term : tokenize(book.getTitle())) {
+            fields.merge(term, TITLE, (a, b) -> a | b);
+        }
+        for (String term : tokenize(book.getAuthor())) {
+            fields.merge(term, AUTHOR, (a, b) -> a | b);
+        }
+        for (Map.Entry<String, Integer> field : fields.entrySet()) {
+            postings.computeIfAbsent(field.getKey(), t -> new ConcurrentHashMap<>()).put(isbn, field.getValue());
+        }
+        termsByIsbn.put(isbn, new ArrayList<>(fields.keySet()));
+        titlesByIsbn.put(isbn, book.getTitle());
+    }
+
+    synchronized void remove(String isbn) {
+        List<String> terms = termsByIsbn.remove(isbn);
+        titlesByIsbn.remove(isbn);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<String, Integer> isbns = postings.get(term);
+            if (isbns != null) {
+                isbns.remove(isbn);
+                if (isbns.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    // ISBNs whose title or author has a term starting with every query term,
+    // best match first, ties broken by title. Null when the query has no terms.
+    List<String> search(String query) {
+        List<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty()) {
+            return null;
+        }
+
+        Map<String, Integer> scores = null;
+        for (String queryTerm : queryTerms) {
+            Map<String, Integer> termScores = new HashMap<>();
+            Map<String, Map<String, Integer>> matches =
+                    postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false);
+            for (Map.Entry<String, Map<String, Integer>> match : matches.entrySet()) {
+                boolean exact = match.getKey().equals(queryTerm);
+                for (Map.Entry<String, Integer> posting : match.getValue().entrySet()) {
+                    int score = score(posting.getValue(), exact);
+                    termScores.merge(posting.getKey(), score, Math::max);
+                }
+            }
+
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                Map<String, Integer> previous = scores;
+                termScores.keySet().retainAll(previous.keySet());
+                termScores.replaceAll((isbn, score) -> score + previous.get(isbn));
+                scores = termScores;
+            }
+            if (scores.isEmpty()) {
+                return Collections.emptyList();
+            }
+        }
+
+        Map<String, Integer> ranked = scores;
+        List<String> isbns = new ArrayList<>(ranked.keySet());
+        isbns.sort((a, b) -> {
+            int byScore = Integer.compare(ranked.get(b), ranked.get(a));
+            return byScore != 0 ? byScore : titlesByIsbn.getOrDefault(a, "").compareTo(titlesByIsbn.getOrDefault(b, ""));
+        });
+        return isbns;
+    }
+
+    private static int score(int fields, boolean exact) {
+        if ((fields & TITLE) != 0) {
+            return exact ? TITLE_EXACT : TITLE_PREFIX;
+        }
+        return exact ? AUTHOR_EXACT : AUTHOR_PREFIX;
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+        StringBuilder term = new StringBuilder();
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue; // accent split off by NFD
+            }
+            if (Character.isLetterOrDigit(c)) {
+                term.append(c);
+            } else if (term.length() > 0) {
+                terms.add(term.toString());
+                term.setLength(0);
+            }
+        }
+        if (term.length() > 0) {
+            terms.add(term.toString());
+        }
+        return terms;
+    }
+}
@@ -3,10 +3,20 @@ package service;
 import model.Book;
 import repository.BookRepository;
 import util.Validator;
+import util.Logger;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class BookService {
+    private static final Logger LOG = Logger.get("service.books");
+
+    // Index hits past this are not worth fetching; nobody pages that far
+    public static final int MAX_SEARCH_RESULTS = 500;
+
     private BookRepository repository;
+    private volatile BookSearchIndex searchIndex;
+    // repository.modificationCount() the index is known to reflect
+    private volatile long indexedModifications;
 
     public BookService(BookRepository repository) {
         this.repository = repository;
@@ -14,23 +24,25 @@ public class BookService {
 
     public boolean addBook(Book book) {
         if (book == null) {
-            System.out.println("❌ Book cannot be null");
+            LOG.info("❌ Book cannot be null");
             return false;
         }
 
         if (!Validator.isValidISBN(book.getIsbn())) {
-            System.out.println("❌ Invalid ISBN: " + book.getIsbn());
+            LOG.info("❌ Invalid ISBN: " + book.getIsbn());
             return false;
         }
 
         Book existing = repository.findById(book.getIsbn());
         if (existing != null) {
-            System.out.println("❌ Book with ISBN " + book.getIsbn() + " already exists");
+            LOG.info("❌ Book with ISBN " + book.getIsbn() + " already exists");
             return false;
         }
 
+        long before = repository.modificationCount();
         repository.save(book);
-        System.out.println("✅ Book added: " + book.getTitle());
+        indexBook(book, before);
+        LOG.info("✅ Book added: " + book.getTitle());
         return true;
     }
 
@@ -40,6 +52,21 @@ public class BookService {
     }
 
 
+    public int countBooks() {
+        return repository.count();
+    }
+
+    public List<Book> getBooksPage(int offset, int limit) {
+        return repository.findPage(offset, limit);
+    }
+
+
+    // For exports: streams the catalog without loading it all
+    public void forEachBook(Consumer<Book> action) {
+        repository.forEach(action);
+    }
+
+
     public Book findBook(String isbn) {
         return repository.findById(isbn);
     }
@@ -61,54 +88,117 @@ public class BookService {
     }
 
 
+    // Word-prefix search over title and author, best matches first
     public List<Book> searchBooks(String query) {
         if (query == null || query.trim().isEmpty()) {
             return getAllBooks();
         }
+        if (repository.supportsFullTextSearch()) {
+            return repository.search(query.trim(), MAX_SEARCH_RESULTS);
+        }
 
-        List<Book> results = searchByTitle(query);
-        results.addAll(searchByAuthor(query));
-
-        return results.stream().distinct().toList();
+        List<String> isbns = getSearchIndex().search(query);
+        if (isbns == null) {
+            // No letters or digits to look up, e.g. "--"; fall back to substring matching
+            return repository.search(query.trim(), MAX_SEARCH_RESULTS);
+        }
+        if (isbns.size() > MAX_SEARCH_RESULTS) {
+            isbns = isbns.subList(0, MAX_SEARCH_RESULTS);
+        }
+        return repository.findByIds(isbns);
     }
 
     public boolean updateBook(Book book) {
         if (book == null) {
             return false;
         }
-        return repository.update(book);
+        long before = repository.modificationCount();
+        boolean updated = repository.update(book);
+        if (updated) {
+            indexBook(book, before);
+        }
+        return updated;
     }
 
     public boolean deleteBook(String isbn) {
         if (isbn == null || isbn.trim().isEmpty()) {
             return false;
         }
-        return repository.delete(isbn.trim());
+        long before = repository.modificationCount();
+        boolean deleted = repository.delete(isbn.trim());
+        if (deleted) {
+            synchronized (this) {
+                if (searchIndex != null) {
+                    searchIndex.remove(isbn.trim());
+                    noteOwnWrite(before);
+                }
+            }
+        }
+        return deleted;
+    }
+
+    // Built from the repository on the first search and kept current by this
+    // service's add/update/delete. Writes that went around it (an import, another
+    // service on the same store) move the repository's modification count past
+    // what the index has seen, and the next search rebuilds it.
+    private BookSearchIndex getSearchIndex() {
+        BookSearchIndex index = searchIndex;
+        if (index != null && repository.modificationCount() == indexedModifications) {
+            return index;
+        }
+        synchronized (this) {
+            long modifications = repository.modificationCount();
+            if (searchIndex == null || modifications != indexedModifications) {
+                index = new BookSearchIndex();
+                for (Book book : repository.findAll()) {
+                    index.put(book);
+                }
+                searchIndex = index;
+                indexedModifications = modifications;
+            }
+            return searchIndex;
+        }
+    }
+
+    // Takes the build lock so a change made while the index is being built is not lost
+    private synchronized void indexBook(Book book, long before) {
+        if (searchIndex != null) {
+            searchIndex.put(book);
+            noteOwnWrite(before);
+        }
+    }
+
+    // Our write was applied to the index; if it was the only one since we last
+    // looked, the index is still complete. Otherwise leave the count stale.
+    private void noteOwnWrite(long before) {
+        if (indexedModifications == before && repository.modificationCount() == before + 1) {
+            indexedModifications = before + 1;
+        }
     }
 
     public List<Book> getAvailableBooks() {
-        return getAllBooks().stream()
-                .filter(Book::isAvailable)
-                .toList();
+        return repository.findAvailable();
     }
 
     public boolean borrowBook(String isbn) {
-        Book book = findBook(isbn);
-        if (book != null && book.isAvailable()) {
-            book.borrowCopy();
-            updateBook(book);
-            System.out.println("✅ Book borrowed: " + book.getTitle());
+        if (isbn != null && repository.tryReserveCopy(isbn)) {
+            LOG.debug(() -> "✅ Book borrowed: " + isbn);
             return true;
         }
         return false;
     }
 
+    // Adds or withdraws copies from stock; updateBook leaves the count alone
+    public boolean adjustCopies(String isbn, int delta) {
+        if (isbn == null || delta == 0) {
+            return false;
+        }
+        return repository.adjustCopies(isbn.trim(), delta);
+    }
+
     public boolean returnBook(String isbn) {
-        Book book = findBook(isbn);
-        if (book != null) {
-            book.returnCopy();
-            updateBook(book);
-            System.out.println("✅ Book returned: " + book.getTitle());
+        if (isbn != null && repository.releaseCopy(isbn)) {
+            LOG.debug(() -> "✅ Book returned: " + isbn);
             return true;
         }
         return false;
@@ -0,0 +1,256 @@
+package service;
+
+import model.Book;
+import model.EBook;
+import model.PrintedBook;
+import repository.BookRepository;
+import repository.FileBookRepository;
+import repository.SQLiteBookRepository;
+import util.DatabaseManager;
+import util.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Streams a CSV catalog feed into a BookRepository in batches. Each batch is
+// parsed and validated in parallel, checked against existing ISBNs with one
+// lookup, and written with one saveAll call, i.e. one transaction in SQLite.
+//
+// Columns: isbn,title,author,year,copies[,type,...]. type is "E-Book" or
+// "Printed Book" (default). E-books continue with file_size_mb,format,
+// download_link,drm; printed books with shelf_location,condition,edition.
+public class CatalogImportService {
+    private static final int BATCH_SIZE = 5_000;
+    private static final int PROGRESS_INTERVAL = 100_000;
+    private static final String DEFAULT_SHELF = "UNSORTED";
+    private static final String DEFAULT_CONDITION = "Good";
+
+    private BookRepository repository;
+
+    public CatalogImportService(BookRepository repository) {
+        this.repository = repository;
+    }
+
+    public ImportResult importCsv(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importCsv(reader);
+        }
+    }
+
+    public ImportResult importCsv(Reader source) throws IOException {
+        BufferedReader reader = source instanceof BufferedReader
+                ? (BufferedReader) source : new BufferedReader(source, 1 << 16);
+        ImportResult result = new ImportResult();
+        long start = System.nanoTime();
+
+        List<String> batch = new ArrayList<>(BATCH_SIZE);
+        boolean firstLine = true;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (firstLine) {
+                firstLine = false;
+                if (line.toLowerCase().startsWith("isbn")) {
+                    continue; // header
+                }
+            }
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            batch.add(line);
+            if (batch.size() == BATCH_SIZE) {
+                importBatch(batch, result);
+                batch.clear();
+                if (result.rowsRead % PROGRESS_INTERVAL == 0) {
+                    System.out.println("... " + result.getRowsRead() + " rows, "
+                            + Math.round(result.rowsPerSecond(System.nanoTime() - start)) + " rows/s");
+                }
+            }
+        }
+        importBatch(batch, result);
+
+        result.elapsedNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    private void importBatch(List<String> lines, ImportResult result) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        result.rowsRead += lines.size();
+
+        // Parsing and ISBN checks are CPU-bound and independent per row
+        List<Book> parsed = lines.parallelStream().map(CatalogImportService::parseRow).toList();
+
+        Map<String, Book> unique = new LinkedHashMap<>();
+        for (Book book : parsed) {
+            if (book == null) {
+                result.invalid++;
+            } else if (unique.putIfAbsent(book.getIsbn(), book) != null) {
+                result.duplicates++;
+            }
+        }
+
+        Set<String> existing = repository.findExistingIsbns(unique.keySet());
+        unique.keySet().removeAll(existing);
+        result.duplicates += existing.size();
+
+        if (unique.isEmpty()) {
+            return;
+        }
+        int saved = repository.saveAll(new ArrayList<>(unique.values()));
+        result.imported += saved;
+        if (saved < unique.size()) {
+            result.failedBatches++;
+            result.failed += unique.size() - saved;
+        }
+    }
+
+    // Null when the row is malformed or its ISBN is invalid
+    static Book parseRow(String line) {
+        List<String> fields = splitCsv(line);
+        if (fields.size() < 5) {
+            return null;
+        }
+
+        String isbn = fields.get(0).replace("-", "").replace(" ", "");
+        if (!Validator.isValidISBN(isbn)) {
+            return null;
+        }
+
+        try {
+            String title = fields.get(1);
+            String author = fields.get(2);
+            int year = Integer.parseInt(fields.get(3).trim());
+            int copies = Integer.parseInt(fields.get(4).trim());
+            String type = field(fields, 5, "Printed Book");
+
+            if ("E-Book".equalsIgnoreCase(type)) {
+                String link = field(fields, 8, null);
+                String drm = field(fields, 9, "0");
+                return new EBook(isbn, title, author, year, copies,
+                        Double.parseDouble(field(fields, 6, "0")), field(fields, 7, "PDF"),
+                        link, "1".equals(drm) || "true".equalsIgnoreCase(drm));
+            }
+            return new PrintedBook(isbn, title, author, year, copies,
+                    field(fields, 6, DEFAULT_SHELF), field(fields, 7, DEFAULT_CONDITION),
+                    Integer.parseInt(field(fields, 8, "1")));
+
+        } catch (RuntimeException e) {
+            return null; // bad number, year out of range, empty title, ...
+        }
+    }
+
+    private static String field(List<String> fields, int index, String defaultValue) {
+        if (index >= fields.size() || fields.get(index).isBlank()) {
+            return defaultValue;
+        }
+        return fields.get(index).trim();
+    }
+
+    // RFC 4180 style: fields may be quoted, and "" inside quotes is a literal quote
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(10);
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    public static class ImportResult {
+        private long rowsRead;
+        private long imported;
+        private long duplicates;
+        private long invalid;
+        private long failed;
+        private long failedBatches;
+        private long elapsedNanos;
+
+        public long getRowsRead() { return rowsRead; }
+        public long getImported() { return imported; }
+        public long getDuplicates() { return duplicates; }
+        public long getInvalid() { return invalid; }
+        public long getFailed() { return failed; }
+        public long getFailedBatches() { return failedBatches; }
+        public long getElapsedMillis() { return elapsedNanos / 1_000_000; }
+
+        public double getRowsPerSecond() {
+            return rowsPerSecond(elapsedNanos);
+        }
+
+        private double rowsPerSecond(long nanos) {
+            return nanos == 0 ? 0 : rowsRead * 1_000_000_000.0 / nanos;
+        }
+
+        @Override
+        public String toString() {
+            String summary = String.format("%d rows read: %d imported, %d duplicates, %d invalid",
+                    rowsRead, imported, duplicates, invalid);
+            if (failedBatches > 0) {
+                summary += String.format(", %d not saved (%d failed batches)", failed, failedBatches);
+            }
+            return summary + String.format(" in %.1fs (%.0f rows/s)", elapsedNanos / 1e9, getRowsPerSecond());
+        }
+    }
+
+    // Usage: CatalogImportService <feed.csv> [--file <books.txt>]
+    // Imports into the SQLite catalog, or into a file catalog with --file.
+    public static void main(String[] args) {
+        if (args.length != 1 && !(args.length == 3 && "--file".equals(args[1]))) {
+            System.err.println("Usage: CatalogImportService <feed.csv> [--file <books.txt>]");
+            System.exit(2);
+        }
+
+        BookRepository repository;
+        if (args.length == 3) {
+            repository = new FileBookRepository(args[2]);
+        } else {
+            DatabaseManager.initializeDatabase();
+            if (!DatabaseManager.isAvailable()) {
+                System.err.println("❌ SQLite driver not found; use --file to import into a file catalog");
+                System.exit(1);
+            }
+            repository = new SQLiteBookRepository();
+        }
+
+        try {
+            ImportResult result = new CatalogImportService(repository).importCsv(Paths.get(args[0]));
+            if (result.getFailedBatches() > 0) {
+                System.err.println("⚠️ Import finished with errors: " + result);
+                System.exit(1);
+            }
+            System.out.println("✅ Import finished: " + result);
+        } catch (IOException e) {
+            System.err.println("❌ Error reading " + args[0] + ": " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
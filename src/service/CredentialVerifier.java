@@ -0,0 +1,145 @@
+package service;
+
+import model.User;
+import util.Logger;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Password hashing is deliberately slow, so it runs on a small fixed pool with
+// a bounded queue: a burst of logins waits its turn (or is turned away) instead
+// of pinning every CPU. Successful logins are remembered for a short while,
+// keyed by an HMAC of username, stored hash and password under a per-process
+// random key, so repeating the same login skips the hashing entirely and a
+// password change invalidates the entry by itself.
+class CredentialVerifier {
+    static final CredentialVerifier SHARED = new CredentialVerifier(
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors())),
+            Long.getLong("library.auth.cacheSeconds", 120));
+
+    private static final Logger LOG = Logger.get("auth");
+    private static final int QUEUE_CAPACITY = 64;
+    private static final long TIMEOUT_SECONDS = 10;
+    private static final int MAX_REMEMBERED = 10_000;
+
+    private final ThreadPoolExecutor pool;
+    private final long rememberNanos;
+    private final Map<String, Long> recentLogins = new ConcurrentHashMap<>();
+    private final ThreadLocal<Mac> mac;
+
+    CredentialVerifier(int threads, long rememberSeconds) {
+        this.pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), r -> {
+                    Thread thread = new Thread(r, "password-verify");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.rememberNanos = TimeUnit.SECONDS.toNanos(rememberSeconds);
+
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        SecretKeySpec key = new SecretKeySpec(secret, "HmacSHA256");
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance("HmacSHA256");
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 not available", e);
+            }
+        });
+    }
+
+    boolean verify(User user, String password) {
+        if (!user.isActive()) {
+            return false;
+        }
+        String key = rememberKey(user, password);
+        Long expires = recentLogins.get(key);
+        if (expires != null) {
+            if (expires - System.nanoTime() > 0) {
+                return true;
+            }
+            recentLogins.remove(key, expires);
+        }
+
+        Boolean match = run(() -> user.login(password));
+        if (Boolean.TRUE.equals(match)) {
+            remember(key);
+            return true;
+        }
+        return false;
+    }
+
+    // False when started with -Dlibrary.auth.cacheSeconds=0
+    boolean remembersLogins() {
+        return rememberNanos > 0;
+    }
+
+    // Null if the pool is saturated or the hash did not finish in time
+    String hash(String password) {
+        return run(() -> User.getPasswordHasher().hash(password));
+    }
+
+    void remember(User user, String password) {
+        remember(rememberKey(user, password));
+    }
+
+    private void remember(String key) {
+        if (rememberNanos <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (recentLogins.size() >= MAX_REMEMBERED) {
+            recentLogins.values().removeIf(expires -> expires - now <= 0);
+            if (recentLogins.size() >= MAX_REMEMBERED) {
+                recentLogins.clear();
+            }
+        }
+        recentLogins.put(key, now + rememberNanos);
+    }
+
+    private String rememberKey(User user, String password) {
+        Mac hmac = mac.get();
+        hmac.update(user.getUsername().getBytes(StandardCharsets.UTF_8));
+        hmac.update((byte) 0);
+        hmac.update(String.valueOf(user.getPasswordHash()).getBytes(StandardCharsets.UTF_8));
+        hmac.update((byte) 0);
+        return Base64.getEncoder().encodeToString(hmac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = pool.submit(task);
+        } catch (RejectedExecutionException e) {
+            LOG.warn("⚠️ Password verification queue is full, request turned away");
+            return null;
+        }
+        try {
+            return future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            LOG.warn("⚠️ Password verification timed out");
+        } catch (ExecutionException e) {
+            LOG.error("❌ Password verification failed: " + e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+}
@@ -1,17 +1,25 @@
 package service;
 
 import model.*;
+import repository.InMemoryLoanRepository;
+import repository.LoanRepository;
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class LoanService {
+    private static final AtomicLong LOAN_SEQUENCE = new AtomicLong();
+
     private FineCalculator fineCalculator;
-    private List<Loan> loans;
+    private LoanRepository repository;
 
     public LoanService() {
+        this(new InMemoryLoanRepository());
+    }
+
+    public LoanService(LoanRepository repository) {
         this.fineCalculator = new FineCalculator();
-        this.loans = new ArrayList<>();
+        this.repository = repository;
     }
 
     public Loan borrowBook(Member member, Book book, int loanPeriodDays) {
@@ -19,26 +27,38 @@ public class LoanService {
             return null;
         }
 
-        String loanId = "LN" + System.currentTimeMillis();
+        // Loan ids are primary keys, so two loans in the same millisecond must still differ
+        String loanId = "LN" + System.currentTimeMillis() + "-" + LOAN_SEQUENCE.incrementAndGet();
         Loan loan = new Loan(loanId, book, member, loanPeriodDays);
-        loans.add(loan);
+        try {
+            repository.save(loan);
+        } catch (IllegalStateException e) {
+            return null;
+        }
         return loan;
     }
 
+    // The fine is worked out before closing, since a returned loan is never overdue.
+    // If the return cannot be stored the loan is left open and nothing is charged.
     public double returnBook(Loan loan) {
-        if (!loans.contains(loan)) {
+        if (!isOpen(loan)) {
             return 0.0;
         }
 
+        double fine = fineCalculator.calculateFine(loan);
         loan.closeLoan();
-        loans.remove(loan);
+        loan.setFineAmount(fine);
+        if (!repository.update(loan)) {
+            loan.setStatus(LoanStatus.ACTIVE);
+            loan.setReturnDate(null);
+            loan.setFineAmount(0.0);
+            return 0.0;
+        }
 
-        if (loan.isOverdue()) {
-            double fine = fineCalculator.calculateFine(loan);
+        if (fine > 0) {
             loan.getMember().addFine(fine);
-            return fine;
         }
-        return 0.0;
+        return fine;
     }
 
     public double calculateFine(Loan loan) {
@@ -58,30 +78,30 @@ public class LoanService {
     }
 
     public List<Loan> getActiveLoans(Member member) {
-        List<Loan> result = new ArrayList<>();
-        for (Loan loan : loans) {
-            if (loan.getMember().getId().equals(member.getId()) &&
-                    loan.getStatus() == LoanStatus.ACTIVE) {
-                result.add(loan);
-            }
-        }
-        return result;
+        return repository.findActiveByMember(member.getId());
     }
 
     public List<Loan> getOverdueLoans() {
-        List<Loan> result = new ArrayList<>();
-        for (Loan loan : loans) {
-            if (loan.isOverdue()) {
-                result.add(loan);
-            }
-        }
-        return result;
+        return repository.findOverdue(LocalDate.now());
+    }
+
+    public List<Loan> getAllLoans() {
+        return repository.findAll();
     }
 
     public boolean renewLoan(Loan loan, int additionalDays) {
-        if (loans.contains(loan) && !loan.isOverdue()) {
-            return loan.renew(additionalDays);
+        LocalDate dueDate = loan.getDueDate();
+        if (isOpen(loan) && !loan.isOverdue() && loan.renew(additionalDays)) {
+            if (repository.update(loan)) {
+                return true;
+            }
+            loan.setDueDate(dueDate);
         }
         return false;
     }
+
+    // Returned loans stay in the repository as history, so "known" is not enough
+    private boolean isOpen(Loan loan) {
+        return loan.getStatus() == LoanStatus.ACTIVE && repository.findById(loan.getLoanId()) != null;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package service;
+
+import metrics.InstrumentedBookRepository;
+import metrics.InstrumentedBookService;
+import metrics.InstrumentedLoanRepository;
+import metrics.InstrumentedLoanService;
+import metrics.InstrumentedUserRepository;
+import metrics.InstrumentedUserService;
+import repository.BookRepository;
+import repository.FileUserRepository;
+import repository.InMemoryLoanRepository;
+import repository.LoanRepository;
+import repository.SQLiteBookRepository;
+import repository.SQLiteLoanRepository;
+import repository.SQLiteUserRepository;
+import repository.UserRepository;
+import util.DatabaseManager;
+
+// The repositories and services the UI works with, built once on first use so
+// opening a window does not reload files or rebuild indexes. Logins and
+// registrations go to the SQLite user store; user management works on
+// users.txt, as it always has. Call DatabaseManager.initializeDatabase() first.
+public final class ServiceContext {
+    private static final String USER_FILE = "users.txt";
+
+    private final UserService userService;
+    private final UserService userAdminService;
+    private final BookService bookService;
+    private final LoanService loanService;
+    private final SessionManager sessions;
+
+    private ServiceContext() {
+        UserRepository userRepository = new InstrumentedUserRepository(new SQLiteUserRepository());
+        BookRepository bookRepository = new InstrumentedBookRepository(new SQLiteBookRepository(true));
+        LoanRepository loanRepository = DatabaseManager.isAvailable()
+                ? new SQLiteLoanRepository(userRepository)
+                : new InMemoryLoanRepository();
+
+        this.userService = new InstrumentedUserService(userRepository);
+        this.userAdminService = new InstrumentedUserService(
+                new InstrumentedUserRepository(new FileUserRepository(USER_FILE)));
+        this.bookService = new InstrumentedBookService(bookRepository);
+        this.loanService = new InstrumentedLoanService(new InstrumentedLoanRepository(loanRepository));
+        this.sessions = new SessionManager(Long.getLong("library.session.idleMinutes", 30));
+    }
+
+    private static class Holder {
+        private static final ServiceContext INSTANCE = new ServiceContext();
+    }
+
+    public static ServiceContext getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    public UserService getUserService() { return userService; }
+    public UserService getUserAdminService() { return userAdminService; }
+    public BookService getBookService() { return bookService; }
+    public LoanService getLoanService() { return loanService; }
+    public SessionManager getSessions() { return sessions; }
+}
@@ -0,0 +1,31 @@
+package service;
+
+import model.User;
+
+// A signed-in user behind an opaque token. Expiry slides: every successful
+// lookup through SessionManager pushes it out by the idle timeout.
+public class Session {
+    private final String token;
+    private final User user;
+    private final long createdAt;
+    private volatile long lastAccessNanos;
+
+    Session(String token, User user) {
+        this.token = token;
+        this.user = user;
+        this.createdAt = System.currentTimeMillis();
+        this.lastAccessNanos = System.nanoTime();
+    }
+
+    public String getToken() { return token; }
+    public User getUser() { return user; }
+    public long getCreatedAt() { return createdAt; }
+
+    void touch(long nowNanos) {
+        lastAccessNanos = nowNanos;
+    }
+
+    boolean isExpired(long nowNanos, long idleTimeoutNanos) {
+        return nowNanos - lastAccessNanos > idleTimeoutNanos;
+    }
+}
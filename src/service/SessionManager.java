@@ -0,0 +1,83 @@
+package service;
+
+import model.User;
+import util.Logger;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Issues session tokens after a successful login so windows can check who is
+// signed in with a map lookup instead of authenticating again. Sessions end on
+// invalidate() or after the idle timeout without a lookup.
+public class SessionManager {
+    private static final Logger LOG = Logger.get("auth");
+    private static final int TOKEN_BYTES = 32;
+    private static final int PURGE_INTERVAL = 64;
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+    private final long idleTimeoutNanos;
+    private int opensSincePurge;
+
+    public SessionManager(long idleTimeoutMinutes) {
+        this.idleTimeoutNanos = TimeUnit.MINUTES.toNanos(idleTimeoutMinutes);
+    }
+
+    public Session open(User user) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        Session session = new Session(token, user);
+        sessions.put(token, session);
+        purgeExpiredOccasionally();
+        LOG.debug(() -> "Session opened for " + user.getUsername());
+        return session;
+    }
+
+    // The live session for the token, or null if it is unknown or has expired
+    public Session get(String token) {
+        if (token == null) {
+            return null;
+        }
+        Session session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (session.isExpired(now, idleTimeoutNanos)) {
+            sessions.remove(token, session);
+            return null;
+        }
+        session.touch(now);
+        return session;
+    }
+
+    public boolean isActive(Session session) {
+        return session != null && get(session.getToken()) == session;
+    }
+
+    public void invalidate(String token) {
+        Session session = token == null ? null : sessions.remove(token);
+        if (session != null) {
+            session.getUser().logout();
+        }
+    }
+
+    public int getActiveCount() {
+        return sessions.size();
+    }
+
+    private void purgeExpiredOccasionally() {
+        synchronized (this) {
+            if (++opensSincePurge < PURGE_INTERVAL) {
+                return;
+            }
+            opensSincePurge = 0;
+        }
+        long now = System.nanoTime();
+        sessions.values().removeIf(session -> session.isExpired(now, idleTimeoutNanos));
+    }
+}
@@ -4,10 +4,14 @@ import model.User;
 import model.UserRole;
 import repository.UserRepository;
 import util.Validator;
+import util.Logger;
 import java.util.List;
 
 public class UserService {
+    private static final Logger LOG = Logger.get("service.users");
+
     private UserRepository repository;
+    private final CredentialVerifier verifier = CredentialVerifier.SHARED;
 
     public UserService(UserRepository repository) {
         this.repository = repository;
@@ -16,58 +20,71 @@ public class UserService {
     public User authenticate(String username, String password) {
         if (username == null || username.trim().isEmpty() ||
                 password == null || password.trim().isEmpty()) {
-            System.out.println("Username and password cannot be empty");
+            LOG.info("Username and password cannot be empty");
             return null;
         }
 
         User user = repository.findByUsername(username);
-        if (user != null && user.login(password) && user.isActive()) {
-            System.out.println("✅ Authentication successful for: " + username);
+        if (user != null && verifier.verify(user, password)) {
+            upgradePasswordHash(user, password);
+            LOG.debug(() -> "✅ Authentication successful for: " + username);
             return user;
         }
 
-        System.out.println("❌ Authentication failed for: " + username);
+        LOG.warn("❌ Authentication failed for: " + username);
         return null;
     }
 
     public boolean registerUser(User user) {
         if (user == null) {
-            System.out.println("❌ User cannot be null");
+            LOG.info("❌ User cannot be null");
             return false;
         }
 
         if (repository.findByUsername(user.getUsername()) != null) {
-            System.out.println("❌ Username already exists: " + user.getUsername());
+            LOG.info("❌ Username already exists: " + user.getUsername());
             return false;
         }
 
         if (repository.findByEmail(user.getEmail()) != null) {
-            System.out.println("❌ Email already registered: " + user.getEmail());
+            LOG.info("❌ Email already registered: " + user.getEmail());
             return false;
         }
 
         if (!Validator.isValidName(user.getName())) {
-            System.out.println("❌ Invalid name: " + user.getName());
+            LOG.info("❌ Invalid name: " + user.getName());
             return false;
         }
 
         if (!Validator.isValidEmail(user.getEmail())) {
-            System.out.println("❌ Invalid email format: " + user.getEmail());
+            LOG.info("❌ Invalid email format: " + user.getEmail());
             return false;
         }
 
         if (!Validator.isValidPhone(user.getMobile())) {
-            System.out.println("❌ Invalid phone number: " + user.getMobile());
+            LOG.info("❌ Invalid phone number: " + user.getMobile());
             return false;
         }
 
         if (!Validator.isStrongPassword(user.getPasswordHash())) {
-            System.out.println("❌ Password is too weak. Must be at least 8 characters with uppercase, lowercase, number, and special character");
+            LOG.info("❌ Password is too weak. Must be at least 8 characters with uppercase, lowercase, number, and special character");
             return false;
         }
 
-        repository.save(user);
-        System.out.println("✅ User registered successfully: " + user.getUsername());
+        String passwordHash = verifier.hash(user.getPasswordHash());
+        if (passwordHash == null) {
+            LOG.warn("❌ Could not hash password for: " + user.getUsername());
+            return false;
+        }
+        user.setPasswordHash(passwordHash);
+
+        try {
+            repository.save(user);
+        } catch (IllegalStateException e) {
+            LOG.error("❌ Registration failed for " + user.getUsername() + ": " + e.getMessage());
+            return false;
+        }
+        LOG.info("✅ User registered successfully: " + user.getUsername());
         return true;
     }
 
@@ -77,17 +94,17 @@ public class UserService {
         }
 
         if (!Validator.isValidName(user.getName())) {
-            System.out.println("❌ Invalid name: " + user.getName());
+            LOG.info("❌ Invalid name: " + user.getName());
             return false;
         }
 
         if (!Validator.isValidEmail(user.getEmail())) {
-            System.out.println("❌ Invalid email: " + user.getEmail());
+            LOG.info("❌ Invalid email: " + user.getEmail());
             return false;
         }
 
         if (!Validator.isValidPhone(user.getMobile())) {
-            System.out.println("❌ Invalid phone: " + user.getMobile());
+            LOG.info("❌ Invalid phone: " + user.getMobile());
             return false;
         }
 
@@ -125,6 +142,15 @@ public class UserService {
     public List<User> getAllUsers() {
         return repository.findAll();
     }
+
+    public int countUsers() {
+        return repository.count();
+    }
+
+    public List<User> getUsersPage(int offset, int limit) {
+        return repository.findPage(offset, limit);
+    }
+
     public List<User> getUsersByRole(UserRole role) {
         if (role == null) {
             return List.of();
@@ -140,6 +166,11 @@ public class UserService {
                 .toList();
     }
 
+    // Whether a repeated login skips the password hash; benchmarks report it
+    public boolean cachesLogins() {
+        return verifier.remembersLogins();
+    }
+
     public boolean isUsernameAvailable(String username) {
         if (username == null || username.trim().isEmpty()) {
             return false;
@@ -161,24 +192,43 @@ public class UserService {
 
         User user = repository.findByUsername(username);
         if (user == null) {
-            System.out.println("❌ User not found: " + username);
+            LOG.info("❌ User not found: " + username);
             return false;
         }
 
-        if (!user.login(oldPassword)) {
-            System.out.println("❌ Old password is incorrect");
+        if (!verifier.verify(user, oldPassword)) {
+            LOG.info("❌ Old password is incorrect");
             return false;
         }
 
         if (!Validator.isStrongPassword(newPassword)) {
-            System.out.println("❌ New password is too weak");
+            LOG.info("❌ New password is too weak");
             return false;
         }
 
-        user.changePassword(newPassword);
+        String passwordHash = verifier.hash(newPassword);
+        if (passwordHash == null) {
+            return false;
+        }
+        user.setPasswordHash(passwordHash);
         return repository.update(user);
     }
 
+    // Plain-text, SHA-256 and lower-iteration hashes are replaced while the
+    // password is at hand; a failed upgrade just leaves the old hash in place
+    private void upgradePasswordHash(User user, String password) {
+        if (!User.getPasswordHasher().needsRehash(user.getPasswordHash())) {
+            return;
+        }
+        String upgraded = verifier.hash(password);
+        if (upgraded != null) {
+            user.setPasswordHash(upgraded);
+            repository.update(user);
+            verifier.remember(user, password);
+            LOG.info("✅ Upgraded password hash for: " + user.getUsername());
+        }
+    }
+
     public boolean activateUser(String userId) {
         User user = repository.findById(userId);
         if (user != null) {
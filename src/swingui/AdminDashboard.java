@@ -2,28 +2,29 @@ package swingui;
 
 import model.User;
 import model.UserRole;
-import repository.FileUserRepository;
+import service.ServiceContext;
+import service.Session;
 import service.UserService;
 import util.Validator;
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
-import java.util.ArrayList;
 import java.util.List;
 
 public class AdminDashboard extends JFrame {
+    private static final int PAGE_SIZE = 200;
+    private static final int MAX_CACHED_PAGES = 20;
+
+    private Session session;
     private User currentUser;
     private UserService userService;
     private JTable userTable;
-    private UserTableModel tableModel;
-
-    public AdminDashboard(User loggedInUser) {
-        this.currentUser = loggedInUser;
+    private PagedTableModel<User> tableModel;
 
-        String userFilePath = "users.txt";
-        FileUserRepository userRepository = new FileUserRepository(userFilePath);
-        userService = new UserService(userRepository);
+    public AdminDashboard(Session session) {
+        this.session = session;
+        this.currentUser = session.getUser();
+        userService = ServiceContext.getInstance().getUserAdminService();
 
         setupUI();
         loadUsers();
@@ -55,7 +56,22 @@ public class AdminDashboard extends JFrame {
 
         JPanel tablePanel = new JPanel(new BorderLayout());
 
-        tableModel = new UserTableModel(new ArrayList<>());
+        String[] columns = {"ID", "Name", "Email", "Phone", "Username", "Role", "Active"};
+        tableModel = new PagedTableModel<>(columns, PAGE_SIZE, MAX_CACHED_PAGES) {
+            @Override
+            protected Object getColumnValue(User user, int column) {
+                switch (column) {
+                    case 0: return user.getId();
+                    case 1: return user.getName();
+                    case 2: return user.getEmail();
+                    case 3: return user.getMobile();
+                    case 4: return user.getUsername();
+                    case 5: return user.getRole().toString();
+                    case 6: return user.isActive() ? "Yes" : "No";
+                    default: return null;
+                }
+            }
+        };
 
         userTable = new JTable(tableModel);
         userTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
@@ -113,15 +129,22 @@ public class AdminDashboard extends JFrame {
         setVisible(true);
     }
 
+    // Rows are fetched a page at a time as they scroll into view
     private void loadUsers() {
-        List<User> users = userService.getAllUsers();
-
-        tableModel.setUsers(users);
+        tableModel.setSource(new PagedTableModel.PageSource<>() {
+            @Override
+            public int count() {
+                return userService.countUsers();
+            }
 
-        JOptionPane.showMessageDialog(this,
-                "Loaded " + users.size() + " users",
+            @Override
+            public List<User> fetch(int offset, int limit) {
+                return userService.getUsersPage(offset, limit);
+            }
+        }, () -> JOptionPane.showMessageDialog(this,
+                "Loaded " + tableModel.getRowCount() + " users",
                 "Info",
-                JOptionPane.INFORMATION_MESSAGE);
+                JOptionPane.INFORMATION_MESSAGE));
     }
 
     private void addUser() {
@@ -258,7 +281,7 @@ public class AdminDashboard extends JFrame {
             return;
         }
 
-        User user = tableModel.getUserAt(selectedRow);
+        User user = tableModel.getRowAt(selectedRow);
 
         if (user == null) {
             JOptionPane.showMessageDialog(this, "User not found!", "Error", JOptionPane.ERROR_MESSAGE);
@@ -403,7 +426,7 @@ public class AdminDashboard extends JFrame {
             return;
         }
 
-        User user = tableModel.getUserAt(selectedRow);
+        User user = tableModel.getRowAt(selectedRow);
 
         if (user == null) {
             JOptionPane.showMessageDialog(this, "User not found!", "Error", JOptionPane.ERROR_MESSAGE);
@@ -418,7 +441,7 @@ public class AdminDashboard extends JFrame {
 
         if (confirm == JOptionPane.YES_OPTION) {
             if (userService.deleteUser(user.getId())) {
-                tableModel.removeUser(selectedRow);
+                tableModel.refresh();
                 JOptionPane.showMessageDialog(this, "User deleted successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
             } else {
                 JOptionPane.showMessageDialog(this, "Failed to delete user!", "Error", JOptionPane.ERROR_MESSAGE);
@@ -432,7 +455,7 @@ public class AdminDashboard extends JFrame {
         if (searchTerm != null && !searchTerm.trim().isEmpty()) {
             List<User> searchResults = userService.searchUsersByName(searchTerm.trim());
 
-            tableModel.setUsers(searchResults);
+            tableModel.setSource(PagedTableModel.PageSource.of(searchResults));
 
             JOptionPane.showMessageDialog(this,
                     "Found " + searchResults.size() + " user(s)",
@@ -448,7 +471,7 @@ public class AdminDashboard extends JFrame {
                 JOptionPane.YES_NO_OPTION);
 
         if (confirm == JOptionPane.YES_OPTION) {
-            currentUser.logout();
+            ServiceContext.getInstance().getSessions().invalidate(session.getToken());
             this.dispose();
             new LoginWindow().setVisible(true);
         }
@@ -460,7 +483,8 @@ public class AdminDashboard extends JFrame {
                 "123-4567", "admin", "admin123", UserRole.ADMIN) {
         };
 
-        SwingUtilities.invokeLater(() -> new AdminDashboard(mockAdmin));
+        SwingUtilities.invokeLater(() ->
+                new AdminDashboard(ServiceContext.getInstance().getSessions().open(mockAdmin)));
     }
 }
 
@@ -2,21 +2,26 @@ package swingui;
 
 import model.Book;
 import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
 import java.util.List;
 
 public class BookTableModel extends AbstractTableModel {
     private List<Book> books;
-    private final String[] columnNames = {"ISBN", "Title", "Author", "Year", "Available"};
+    private final String[] columnNames = {"ISBN", "Title", "Author", "Year", "Type", "Available", "Copies"};
 
     public BookTableModel(List<Book> books) {
-        this.books = books;
+        this.books = new ArrayList<>(books);
     }
 
     public void setBooks(List<Book> books) {
-        this.books = books;
+        this.books = new ArrayList<>(books);
         fireTableDataChanged();
     }
 
+    public Book getBookAt(int rowIndex) {
+        return books.get(rowIndex);
+    }
+
     @Override
     public int getRowCount() {
         return books.size();
@@ -40,7 +45,9 @@ public class BookTableModel extends AbstractTableModel {
             case 1: return book.getTitle();
             case 2: return book.getAuthor();
             case 3: return book.getPublicationYear();
-            case 4: return book.isAvailable() ? "Yes" : "No";
+            case 4: return book.getType();
+            case 5: return book.isAvailable() ? "Yes" : "No";
+            case 6: return book.getCopies();
             default: return null;
         }
     }
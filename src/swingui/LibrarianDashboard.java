@@ -2,24 +2,27 @@ package swingui;
 
 import model.Book;
 import model.User;
-import repository.SQLiteBookRepository;
 import service.BookService;
+import service.ServiceContext;
+import service.Session;
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.util.List;
 
 public class LibrarianDashboard extends JFrame {
+    private static final int PAGE_SIZE = 200;
+    private static final int MAX_CACHED_PAGES = 20;
+
+    private Session session;
     private User currentUser;
     private BookService bookService;
     private JTable bookTable;
-    private DefaultTableModel tableModel;
-
-    public LibrarianDashboard(User loggedInUser) {
-        this.currentUser = loggedInUser;
+    private PagedTableModel<Book> tableModel;
 
-        SQLiteBookRepository bookRepo = new SQLiteBookRepository();
-        bookService = new BookService(bookRepo);
+    public LibrarianDashboard(Session session) {
+        this.session = session;
+        this.currentUser = session.getUser();
+        bookService = ServiceContext.getInstance().getBookService();
 
         setupUI();
         loadBooks();
@@ -52,10 +55,19 @@ public class LibrarianDashboard extends JFrame {
         JPanel tablePanel = new JPanel(new BorderLayout());
 
         String[] columns = {"ISBN", "Title", "Author", "Year", "Copies", "Available", "Type"};
-        tableModel = new DefaultTableModel(columns, 0) {
+        tableModel = new PagedTableModel<>(columns, PAGE_SIZE, MAX_CACHED_PAGES) {
             @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
+            protected Object getColumnValue(Book book, int column) {
+                switch (column) {
+                    case 0: return book.getIsbn();
+                    case 1: return book.getTitle();
+                    case 2: return book.getAuthor();
+                    case 3: return book.getPublicationYear();
+                    case 4: return book.getCopies();
+                    case 5: return book.isAvailable() ? "Yes" : "No";
+                    case 6: return book.getType();
+                    default: return null;
+                }
             }
         };
 
@@ -97,21 +109,19 @@ public class LibrarianDashboard extends JFrame {
         setVisible(true);
     }
 
+    // Rows are fetched a page at a time as they scroll into view
     private void loadBooks() {
-        tableModel.setRowCount(0);
-        List<Book> books = bookService.getAllBooks();
-
-        for (Book book : books) {
-            tableModel.addRow(new Object[]{
-                    book.getIsbn(),
-                    book.getTitle(),
-                    book.getAuthor(),
-                    book.getPublicationYear(),
-                    book.getCopies(),
-                    book.isAvailable() ? "Yes" : "No",
-                    book.getType()
-            });
-        }
+        tableModel.setSource(new PagedTableModel.PageSource<>() {
+            @Override
+            public int count() {
+                return bookService.countBooks();
+            }
+
+            @Override
+            public List<Book> fetch(int offset, int limit) {
+                return bookService.getBooksPage(offset, limit);
+            }
+        });
     }
 
     private void addBook() {
@@ -168,8 +178,7 @@ public class LibrarianDashboard extends JFrame {
             return;
         }
 
-        String isbn = (String) tableModel.getValueAt(row, 0);
-        Book book = bookService.findBook(isbn);
+        Book book = tableModel.getRowAt(row);
 
         if (book != null) {
             JOptionPane.showMessageDialog(this, "Edit book: " + book.getTitle());
@@ -183,8 +192,12 @@ public class LibrarianDashboard extends JFrame {
             return;
         }
 
-        String isbn = (String) tableModel.getValueAt(row, 0);
-        String title = (String) tableModel.getValueAt(row, 1);
+        Book selected = tableModel.getRowAt(row);
+        if (selected == null) {
+            return; // page still loading
+        }
+        String isbn = selected.getIsbn();
+        String title = selected.getTitle();
 
         int confirm = JOptionPane.showConfirmDialog(this,
                 "Delete book: " + title + "?",
@@ -202,20 +215,8 @@ public class LibrarianDashboard extends JFrame {
     private void searchBooks() {
         String query = JOptionPane.showInputDialog(this, "Enter search term (title or author):");
         if (query != null && !query.trim().isEmpty()) {
-            tableModel.setRowCount(0);
             List<Book> results = bookService.searchBooks(query.trim());
-
-            for (Book book : results) {
-                tableModel.addRow(new Object[]{
-                        book.getIsbn(),
-                        book.getTitle(),
-                        book.getAuthor(),
-                        book.getPublicationYear(),
-                        book.getCopies(),
-                        book.isAvailable() ? "Yes" : "No",
-                        book.getType()
-                });
-            }
+            tableModel.setSource(PagedTableModel.PageSource.of(results));
 
             JOptionPane.showMessageDialog(this, "Found " + results.size() + " books");
         }
@@ -232,6 +233,7 @@ public class LibrarianDashboard extends JFrame {
                 JOptionPane.YES_NO_OPTION);
 
         if (confirm == JOptionPane.YES_OPTION) {
+            ServiceContext.getInstance().getSessions().invalidate(session.getToken());
             dispose();
             new LoginWindow().setVisible(true);
         }
@@ -3,7 +3,8 @@ package swingui;
 import model.User;
 import model.UserRole;
 import repository.FileUserRepository;
-import repository.SQLiteUserRepository;
+import service.ServiceContext;
+import service.Session;
 import service.UserService;
 import util.Validator;
 import javax.swing.*;
@@ -21,8 +22,7 @@ public class LoginWindow extends JFrame {
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLocationRelativeTo(null);
 
-        SQLiteUserRepository userRepository = new SQLiteUserRepository();
-        userService = new UserService(userRepository);
+        userService = ServiceContext.getInstance().getUserService();
 
         JPanel panel = new JPanel(new GridBagLayout());
         GridBagConstraints gbc = new GridBagConstraints();
@@ -89,27 +89,46 @@ public class LoginWindow extends JFrame {
                 return;
             }
 
-            User authenticatedUser = userService.authenticate(username, password);
-
-            if (authenticatedUser != null) {
-                // Check if user's role matches selected role
-                if (authenticatedUser.getRole() == selectedRole) {
-                    statusLabel.setText("Login successful!");
-                    JOptionPane.showMessageDialog(this,
-                            "Welcome, " + authenticatedUser.getName() + "!",
-                            "Login Successful",
-                            JOptionPane.INFORMATION_MESSAGE);
-
-                    this.dispose();
-
-                    openDashboard(authenticatedUser);
+            // Password hashing is slow on purpose, so keep it off the event thread
+            loginBtn.setEnabled(false);
+            statusLabel.setText("Signing in...");
+            new SwingWorker<User, Void>() {
+                @Override
+                protected User doInBackground() {
+                    return userService.authenticate(username, password);
+                }
 
-                } else {
-                    statusLabel.setText("Wrong role selected! You are a " + authenticatedUser.getRole());
+                @Override
+                protected void done() {
+                    loginBtn.setEnabled(true);
+                    User authenticatedUser;
+                    try {
+                        authenticatedUser = get();
+                    } catch (Exception ex) {
+                        authenticatedUser = null;
+                    }
+
+                    if (authenticatedUser != null) {
+                        // Check if user's role matches selected role
+                        if (authenticatedUser.getRole() == selectedRole) {
+                            statusLabel.setText("Login successful!");
+                            JOptionPane.showMessageDialog(LoginWindow.this,
+                                    "Welcome, " + authenticatedUser.getName() + "!",
+                                    "Login Successful",
+                                    JOptionPane.INFORMATION_MESSAGE);
+
+                            LoginWindow.this.dispose();
+
+                            openDashboard(ServiceContext.getInstance().getSessions().open(authenticatedUser));
+
+                        } else {
+                            statusLabel.setText("Wrong role selected! You are a " + authenticatedUser.getRole());
+                        }
+                    } else {
+                        statusLabel.setText("Invalid username or password!");
+                    }
                 }
-            } else {
-                statusLabel.setText("Invalid username or password!");
-            }
+            }.execute();
         });
 
         registerBtn.addActionListener(e -> {
@@ -129,16 +148,17 @@ public class LoginWindow extends JFrame {
         setVisible(true);
     }
 
-    private void openDashboard(User user) {
+    private void openDashboard(Session session) {
+        User user = session.getUser();
         switch (user.getRole()) {
             case ADMIN:
-                new AdminDashboard(user).setVisible(true);
+                new AdminDashboard(session).setVisible(true);
                 break;
             case LIBRARIAN:
-                new LibrarianDashboard(user).setVisible(true);
+                new LibrarianDashboard(session).setVisible(true);
                 break;
             case MEMBER:
-                new MemberDashboard(user).setVisible(true);
+                new MemberDashboard(session).setVisible(true);
                 break;
             default:
                 JOptionPane.showMessageDialog(this,
@@ -1,14 +1,18 @@
 package swingui;
 
 import model.User;
+import service.ServiceContext;
+import service.Session;
 import javax.swing.*;
 import java.awt.*;
 
 public class MemberDashboard extends JFrame {
+    private Session session;
     private User currentUser;
 
-    public MemberDashboard(User loggedInUser) {
-        this.currentUser = loggedInUser;
+    public MemberDashboard(Session session) {
+        this.session = session;
+        this.currentUser = session.getUser();
         setupUI();
     }
 
@@ -67,19 +71,41 @@ public class MemberDashboard extends JFrame {
     }
 
     private void openSearchBooks() {
-        new SearchBooksWindow(currentUser).setVisible(true);
+        if (isSessionActive()) {
+            new SearchBooksWindow(currentUser).setVisible(true);
+        }
     }
 
     private void openMyLoans() {
-        new MyLoansWindow(currentUser).setVisible(true);
+        if (isSessionActive()) {
+            new MyLoansWindow(currentUser).setVisible(true);
+        }
     }
 
     private void openBorrowBook() {
-        new BorrowBookWindow(currentUser).setVisible(true);
+        if (isSessionActive()) {
+            new BorrowBookWindow(currentUser).setVisible(true);
+        }
     }
 
     private void openReturnBook() {
-        new ReturnBookWindow(currentUser).setVisible(true);
+        if (isSessionActive()) {
+            new ReturnBookWindow(currentUser).setVisible(true);
+        }
+    }
+
+    // Also keeps the session alive; an expired one goes back to the login screen
+    private boolean isSessionActive() {
+        if (ServiceContext.getInstance().getSessions().isActive(session)) {
+            return true;
+        }
+        JOptionPane.showMessageDialog(this,
+                "Your session has expired. Please log in again.",
+                "Session Expired",
+                JOptionPane.WARNING_MESSAGE);
+        this.dispose();
+        new LoginWindow().setVisible(true);
+        return false;
     }
 
     private void logout() {
@@ -89,7 +115,7 @@ public class MemberDashboard extends JFrame {
                 JOptionPane.YES_NO_OPTION);
 
         if (confirm == JOptionPane.YES_OPTION) {
-            currentUser.logout();
+            ServiceContext.getInstance().getSessions().invalidate(session.getToken());
             this.dispose();
             new LoginWindow().setVisible(true);
         }
@@ -0,0 +1,207 @@
+package swingui;
+
+import javax.swing.SwingWorker;
+import javax.swing.table.AbstractTableModel;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Table model that only holds the pages the user has scrolled to. A missing
+// page is fetched off the EDT and its rows repainted when it arrives; the
+// least recently used pages are dropped once the cache is full, so memory
+// stays bounded however large the source is.
+public abstract class PagedTableModel<T> extends AbstractTableModel {
+    private static final ExecutorService PAGE_LOADER = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "table-page-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public interface PageSource<T> {
+        int count();
+        List<T> fetch(int offset, int limit);
+
+        // For results that are already in memory, such as a search
+        static <T> PageSource<T> of(List<T> rows) {
+            return new PageSource<T>() {
+                @Override
+                public int count() {
+                    return rows.size();
+                }
+
+                @Override
+                public List<T> fetch(int offset, int limit) {
+                    return rows.subList(Math.min(offset, rows.size()), Math.min(offset + limit, rows.size()));
+                }
+            };
+        }
+    }
+
+    private final String[] columnNames;
+    private final int pageSize;
+    private final Map<Integer, List<T>> pages;
+    private final Set<Integer> loading = new HashSet<>();
+    private PageSource<T> source;
+    private int rowCount;
+    // Bumped on every refresh so pages fetched for an older source are ignored
+    private int generation;
+
+    public PagedTableModel(String[] columnNames, int pageSize, int maxCachedPages) {
+        this.columnNames = columnNames;
+        this.pageSize = pageSize;
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+                return size() > maxCachedPages;
+            }
+        };
+    }
+
+    protected abstract Object getColumnValue(T row, int column);
+
+    public void setSource(PageSource<T> source) {
+        setSource(source, null);
+    }
+
+    // whenCounted runs on the EDT once the row count is known
+    public void setSource(PageSource<T> source, Runnable whenCounted) {
+        this.source = source;
+        refresh(whenCounted);
+    }
+
+    public void refresh() {
+        refresh(null);
+    }
+
+    // Drops every cached page and re-reads the row count. Counting can block
+    // (the SQLite user store flushes pending writes first), so it runs on the
+    // loader thread together with the first page; the table is empty until then.
+    public void refresh(Runnable whenCounted) {
+        generation++;
+        pages.clear();
+        loading.clear();
+        rowCount = 0;
+        fireTableDataChanged();
+        if (source == null) {
+            if (whenCounted != null) {
+                whenCounted.run();
+            }
+            return;
+        }
+
+        int requestGeneration = generation;
+        PageSource<T> requestSource = source;
+        loading.add(0);
+
+        PAGE_LOADER.execute(new SwingWorker<List<T>, Void>() {
+            private int count;
+
+            @Override
+            protected List<T> doInBackground() {
+                count = requestSource.count();
+                return count > 0 ? requestSource.fetch(0, pageSize) : List.of();
+            }
+
+            @Override
+            protected void done() {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                loading.remove(0);
+                try {
+                    pages.put(0, get());
+                } catch (InterruptedException | ExecutionException e) {
+                    System.err.println("❌ Error counting rows: " + e.getMessage());
+                    return;
+                }
+                rowCount = count;
+                fireTableDataChanged();
+                if (whenCounted != null) {
+                    whenCounted.run();
+                }
+            }
+        });
+    }
+
+    // Null while the row's page is still loading
+    public T getRowAt(int rowIndex) {
+        if (rowIndex < 0 || rowIndex >= rowCount) {
+            return null;
+        }
+        List<T> page = pages.get(rowIndex / pageSize);
+        if (page == null) {
+            loadPage(rowIndex / pageSize);
+            return null;
+        }
+        int offset = rowIndex % pageSize;
+        return offset < page.size() ? page.get(offset) : null;
+    }
+
+    private void loadPage(int pageIndex) {
+        if (!loading.add(pageIndex)) {
+            return;
+        }
+        int requestGeneration = generation;
+        PageSource<T> requestSource = source;
+
+        PAGE_LOADER.execute(new SwingWorker<List<T>, Void>() {
+            @Override
+            protected List<T> doInBackground() {
+                return requestSource.fetch(pageIndex * pageSize, pageSize);
+            }
+
+            @Override
+            protected void done() {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                loading.remove(pageIndex);
+                try {
+                    pages.put(pageIndex, get());
+                } catch (InterruptedException | ExecutionException e) {
+                    System.err.println("❌ Error loading rows: " + e.getMessage());
+                    return;
+                }
+                int firstRow = pageIndex * pageSize;
+                int lastRow = Math.min(firstRow + pageSize, rowCount) - 1;
+                if (firstRow <= lastRow) {
+                    fireTableRowsUpdated(firstRow, lastRow);
+                }
+            }
+        });
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        T row = getRowAt(rowIndex);
+        if (row == null) {
+            return columnIndex == 0 ? "Loading..." : null;
+        }
+        return getColumnValue(row, columnIndex);
+    }
+
+    @Override
+    public boolean isCellEditable(int rowIndex, int columnIndex) {
+        return false;
+    }
+}
@@ -1,17 +1,48 @@
 package swingui;
 
+import model.Book;
 import model.User;
+import service.BookService;
+import service.ServiceContext;
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
-
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Searches as you type. Keystrokes are debounced and each query runs on a
+// background thread; a query that a newer one has replaced is skipped before it
+// starts and its results dropped. Searches are capped, so a newer one never
+// waits long behind it. With no query the table pages through the catalog like
+// the librarian's grid, fetching only the pages scrolled into view.
 public class SearchBooksWindow extends JFrame {
+    private static final int DEBOUNCE_MILLIS = 250;
+    private static final int PAGE_SIZE = 100;
+    private static final int MAX_CACHED_PAGES = 20;
+
+    private static final ExecutorService SEARCH_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "book-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private User currentUser;
+    private BookService bookService;
     private JTable booksTable;
-    private DefaultTableModel tableModel;
+    private PagedTableModel<Book> tableModel;
+    private JTextField searchField;
+    private JLabel statusLabel;
+    private Timer debounceTimer;
+    // Written on the EDT, read by the search thread to spot superseded queries
+    private volatile SearchWorker currentSearch;
 
     public SearchBooksWindow(User user) {
         this.currentUser = user;
+        this.bookService = ServiceContext.getInstance().getBookService();
         setupUI();
         loadBooks();
     }
@@ -26,20 +57,31 @@ public class SearchBooksWindow extends JFrame {
 
         JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         JLabel searchLabel = new JLabel("Search:");
-        JTextField searchField = new JTextField(20);
+        searchField = new JTextField(20);
         JButton searchBtn = new JButton("Search");
         JButton clearBtn = new JButton("Clear");
+        statusLabel = new JLabel(" ");
 
         searchPanel.add(searchLabel);
         searchPanel.add(searchField);
         searchPanel.add(searchBtn);
         searchPanel.add(clearBtn);
+        searchPanel.add(statusLabel);
 
         String[] columns = {"ISBN", "Title", "Author", "Year", "Type", "Available", "Copies"};
-        tableModel = new DefaultTableModel(columns, 0) {
+        tableModel = new PagedTableModel<>(columns, PAGE_SIZE, MAX_CACHED_PAGES) {
             @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
+            protected Object getColumnValue(Book book, int column) {
+                switch (column) {
+                    case 0: return book.getIsbn();
+                    case 1: return book.getTitle();
+                    case 2: return book.getAuthor();
+                    case 3: return book.getPublicationYear();
+                    case 4: return book.getType();
+                    case 5: return book.isAvailable() ? "Yes" : "No";
+                    case 6: return book.getCopies();
+                    default: return null;
+                }
             }
         };
         booksTable = new JTable(tableModel);
@@ -57,62 +99,73 @@ public class SearchBooksWindow extends JFrame {
         mainPanel.add(buttonPanel, BorderLayout.SOUTH);
 
         add(mainPanel);
-        searchBtn.addActionListener(e -> searchBooks(searchField.getText()));
-        clearBtn.addActionListener(e -> {
-            searchField.setText("");
-            loadBooks();
+
+        debounceTimer = new Timer(DEBOUNCE_MILLIS, e -> searchBooks(searchField.getText()));
+        debounceTimer.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) { debounceTimer.restart(); }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) { debounceTimer.restart(); }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) { debounceTimer.restart(); }
         });
+
+        searchField.addActionListener(e -> searchNow());
+        searchBtn.addActionListener(e -> searchNow());
+        clearBtn.addActionListener(e -> searchField.setText(""));
         closeBtn.addActionListener(e -> dispose());
         borrowBtn.addActionListener(e -> borrowSelectedBook());
     }
 
-    private void loadBooks() {
-        tableModel.setRowCount(0);
-
-        Object[][] demoBooks = {
-                {"9780134685991", "Effective Java", "Joshua Bloch", 2018, "E-BOOK", 3, 3},
-                {"9780596009205", "Head First Java", "Kathy Sierra", 2005, "PRINTED", 2, 2},
-                {"9780201633610", "Design Patterns", "Erich Gamma", 1994, "PRINTED", 1, 1},
-                {"9780321356680", "Effective Java 2nd Ed", "Joshua Bloch", 2008, "PRINTED", 1, 1},
-                {"9780132350884", "Clean Code", "Robert Martin", 2008, "PRINTED", 2, 2}
-        };
-
-        for (Object[] book : demoBooks) {
-            tableModel.addRow(book);
+    @Override
+    public void dispose() {
+        debounceTimer.stop();
+        if (currentSearch != null) {
+            currentSearch.cancel(true);
         }
+        super.dispose();
+    }
 
+    private void loadBooks() {
+        searchBooks("");
         System.out.println("🔍 Showing all books for searching");
     }
 
-    private void searchBooks(String query) {
-        tableModel.setRowCount(0);
-
-        Object[][] allBooks = {
-                {"9780134685991", "Effective Java", "Joshua Bloch", 2018, "E-BOOK", 3, 3},
-                {"9780596009205", "Head First Java", "Kathy Sierra", 2005, "PRINTED", 2, 2},
-                {"9780201633610", "Design Patterns", "Erich Gamma", 1994, "PRINTED", 1, 1},
-                {"9780321356680", "Effective Java 2nd Ed", "Joshua Bloch", 2008, "PRINTED", 1, 1},
-                {"9780132350884", "Clean Code", "Robert Martin", 2008, "PRINTED", 2, 2}
-        };
-
-        String queryLower = query.toLowerCase();
-
-        for (Object[] book : allBooks) {
-            String title = ((String) book[1]).toLowerCase();
-            String author = ((String) book[2]).toLowerCase();
-            String isbn = (String) book[0];
+    private void searchNow() {
+        debounceTimer.stop();
+        searchBooks(searchField.getText());
+    }
 
-            if (query.isEmpty() ||
-                    title.contains(queryLower) ||
-                    author.contains(queryLower) ||
-                    isbn.contains(query)) {
-                tableModel.addRow(book);
-            }
+    // Runs on the EDT; a text query runs in SearchWorker
+    private void searchBooks(String query) {
+        if (currentSearch != null) {
+            currentSearch.cancel(true);
+            currentSearch = null;
         }
-
-        if (tableModel.getRowCount() == 0) {
-            JOptionPane.showMessageDialog(this, "No books found matching: " + query);
+        statusLabel.setText("Searching...");
+
+        String trimmed = query.trim();
+        if (trimmed.isEmpty()) {
+            tableModel.setSource(new PagedTableModel.PageSource<>() {
+                @Override
+                public int count() {
+                    return bookService.countBooks();
+                }
+
+                @Override
+                public List<Book> fetch(int offset, int limit) {
+                    return bookService.getBooksPage(offset, limit);
+                }
+            }, () -> statusLabel.setText(tableModel.getRowCount() + " book(s)"));
+            return;
         }
+
+        tableModel.setSource(null);
+        currentSearch = new SearchWorker(trimmed);
+        SEARCH_EXECUTOR.execute(currentSearch);
     }
 
     private void borrowSelectedBook() {
@@ -122,19 +175,56 @@ public class SearchBooksWindow extends JFrame {
             return;
         }
 
-        String title = (String) tableModel.getValueAt(selectedRow, 1);
-        int available = (Integer) tableModel.getValueAt(selectedRow, 5);
-
-        if (available <= 0) {
-            JOptionPane.showMessageDialog(this, "Sorry, '" + title + "' is not available.");
+        Book book = tableModel.getRowAt(booksTable.convertRowIndexToModel(selectedRow));
+        if (book == null) {
+            return; // its page is still loading
+        }
+        if (!book.isAvailable()) {
+            JOptionPane.showMessageDialog(this, "Sorry, '" + book.getTitle() + "' is not available.");
             return;
         }
 
-        tableModel.setValueAt(available - 1, selectedRow, 5);
-
         JOptionPane.showMessageDialog(this,
-                "DEMO: '" + title + "' borrowed successfully!\n" +
-                        "New availability: " + (available - 1) + " copies\n" +
+                "DEMO: '" + book.getTitle() + "' borrowed successfully!\n" +
+                        "New availability: " + (book.getCopies() - 1) + " copies\n" +
                         "(Would create loan record in database)");
     }
-}
\ No newline at end of file
+
+    private class SearchWorker extends SwingWorker<List<Book>, Void> {
+        private final String query;
+
+        SearchWorker(String query) {
+            this.query = query;
+        }
+
+        // Capped at BookService.MAX_SEARCH_RESULTS
+        @Override
+        protected List<Book> doInBackground() {
+            if (isCancelled() || this != currentSearch) {
+                return List.of();
+            }
+            return bookService.searchBooks(query);
+        }
+
+        @Override
+        protected void done() {
+            if (this != currentSearch || isCancelled()) {
+                return;
+            }
+            try {
+                List<Book> results = get();
+                tableModel.setSource(PagedTableModel.PageSource.of(results));
+                if (results.isEmpty()) {
+                    statusLabel.setText("No books found matching: " + query);
+                } else {
+                    statusLabel.setText(results.size() + " book(s)");
+                }
+            } catch (InterruptedException | CancellationException e) {
+                statusLabel.setText(" ");
+            } catch (ExecutionException e) {
+                statusLabel.setText("Search failed");
+                System.err.println("❌ Error searching books: " + e.getCause().getMessage());
+            }
+        }
+    }
+}
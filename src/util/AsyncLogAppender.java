@@ -0,0 +1,90 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Hands records to a single background writer through a bounded ring buffer,
+// so callers never wait on console or file I/O. When the buffer is full the
+// record is dropped and counted rather than blocking the caller.
+public class AsyncLogAppender implements LogAppender {
+    private static final int DRAIN_BATCH = 256;
+    private static final long FLUSH_TIMEOUT_MILLIS = 5_000;
+
+    private final LogAppender delegate;
+    private final BlockingQueue<LogRecord> buffer;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+
+    public AsyncLogAppender(LogAppender delegate, int capacity) {
+        this.delegate = delegate;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+
+        Thread writer = new Thread(this::drain, "log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void append(LogRecord record) {
+        if (buffer.offer(record)) {
+            enqueued.incrementAndGet();
+        } else {
+            dropped.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void flush() {
+        long target = enqueued.get();
+        long deadline = System.currentTimeMillis() + FLUSH_TIMEOUT_MILLIS;
+        while (written.get() < target && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        delegate.flush();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private void drain() {
+        List<LogRecord> batch = new ArrayList<>(DRAIN_BATCH);
+        while (true) {
+            try {
+                LogRecord first = buffer.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                return;
+            }
+            buffer.drainTo(batch, DRAIN_BATCH - 1);
+
+            long lost = dropped.getAndSet(0);
+            if (lost > 0) {
+                delegate.append(new LogRecord(LogLevel.WARN, "log",
+                        "⚠️ Log buffer full, dropped " + lost + " messages", null));
+            }
+            for (LogRecord record : batch) {
+                try {
+                    delegate.append(record);
+                } catch (RuntimeException e) {
+                    // A broken appender must not kill the writer thread
+                }
+            }
+            written.addAndGet(batch.size());
+            batch.clear();
+        }
+    }
+}
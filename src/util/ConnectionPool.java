@@ -0,0 +1,351 @@
+package util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ConnectionPool {
+    private final String url;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long idleValidationMillis;
+    private final int statementCacheSize;
+
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger created = new AtomicInteger();
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private volatile boolean closed;
+
+    public ConnectionPool(String url, int maxSize, long borrowTimeoutMillis,
+                          long idleValidationMillis, int statementCacheSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Pool size must be positive: " + maxSize);
+        }
+        this.url = url;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleValidationMillis = idleValidationMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out after " + borrowTimeoutMillis
+                        + " ms waiting for a database connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        recordWait(System.nanoTime() - start);
+
+        try {
+            PooledConnection pooled = takeIdle();
+            if (pooled == null) {
+                pooled = new PooledConnection(DriverManager.getConnection(url));
+                created.incrementAndGet();
+            }
+            active.incrementAndGet();
+            return pooled.lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledConnection takeIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isUsable(pooled)) {
+                return pooled;
+            }
+            pooled.closePhysical();
+        }
+        return null;
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        try {
+            if (pooled.physical.isClosed()) {
+                return false;
+            }
+            long idleMillis = (System.nanoTime() - pooled.lastReturnedNanos) / 1_000_000;
+            return idleMillis < idleValidationMillis || pooled.physical.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void release(PooledConnection pooled) {
+        active.decrementAndGet();
+        try {
+            if (closed || pooled.physical.isClosed()) {
+                pooled.closePhysical();
+                return;
+            }
+            if (!pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            pooled.lastReturnedNanos = System.nanoTime();
+            // LIFO keeps the most recently used (warmest) connections busy
+            idle.offerFirst(pooled);
+        } catch (SQLException e) {
+            pooled.closePhysical();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void recordWait(long nanos) {
+        borrowCount.increment();
+        totalWaitNanos.add(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public void close() {
+        closed = true;
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            pooled.closePhysical();
+        }
+    }
+
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getCreatedCount() {
+        return created.get();
+    }
+
+    public long getBorrowCount() {
+        return borrowCount.sum();
+    }
+
+    public double getAverageWaitMillis() {
+        long borrows = borrowCount.sum();
+        return borrows == 0 ? 0.0 : totalWaitNanos.sum() / 1_000_000.0 / borrows;
+    }
+
+    public double getMaxWaitMillis() {
+        return maxWaitNanos.get() / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Pool[active=%d, idle=%d, max=%d, created=%d, borrows=%d, avgWait=%.3fms, maxWait=%.3fms]",
+                getActiveCount(), getIdleCount(), maxSize, getCreatedCount(),
+                getBorrowCount(), getAverageWaitMillis(), getMaxWaitMillis());
+    }
+
+    private class PooledConnection {
+        private final Connection physical;
+        private final Map<String, CachedStatement> statements;
+        private volatile long lastReturnedNanos = System.nanoTime();
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                    if (size() > statementCacheSize) {
+                        eldest.getValue().evict();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        Connection lease() {
+            Lease lease = new Lease(this);
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, lease);
+        }
+
+        PreparedStatement prepare(String sql) throws SQLException {
+            if (statementCacheSize <= 0) {
+                return physical.prepareStatement(sql);
+            }
+            CachedStatement cached = statements.get(sql);
+            if (cached == null) {
+                cached = new CachedStatement(physical.prepareStatement(sql));
+                statements.put(sql, cached);
+            } else if (cached.inUse) {
+                // Same SQL prepared twice within one lease: hand out an uncached statement
+                return physical.prepareStatement(sql);
+            }
+            cached.inUse = true;
+            return cached.handle();
+        }
+
+        void closePhysical() {
+            for (CachedStatement cached : statements.values()) {
+                cached.evict();
+            }
+            statements.clear();
+            try {
+                physical.close();
+            } catch (SQLException ignored) {
+            }
+        }
+    }
+
+    private class Lease implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean returned;
+
+        Lease(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + "]";
+                default:
+                    break;
+            }
+
+            if (returned) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            if ("prepareStatement".equals(name) && args != null && args.length == 1) {
+                return pooled.prepare((String) args[0]);
+            }
+            return invokeTarget(pooled.physical, method, args);
+        }
+    }
+
+    private static class CachedStatement implements InvocationHandler {
+        private final PreparedStatement physical;
+        private ResultSet lastResult;
+        private boolean inUse;
+        private boolean evicted;
+
+        CachedStatement(PreparedStatement physical) {
+            this.physical = physical;
+        }
+
+        PreparedStatement handle() {
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, this);
+        }
+
+        void evict() {
+            evicted = true;
+            if (!inUse) {
+                closeQuietly();
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (inUse) {
+                        inUse = false;
+                        recycle();
+                    }
+                    return null;
+                case "isClosed":
+                    return !inUse || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+
+            if (!inUse) {
+                throw new SQLException("Statement has already been closed");
+            }
+            Object result = invokeTarget(physical, method, args);
+            if (result instanceof ResultSet) {
+                lastResult = (ResultSet) result;
+            }
+            return result;
+        }
+
+        private void recycle() {
+            if (evicted) {
+                closeQuietly();
+                return;
+            }
+            try {
+                if (lastResult != null) {
+                    lastResult.close();
+                }
+                physical.clearParameters();
+            } catch (SQLException e) {
+                closeQuietly();
+            } finally {
+                lastResult = null;
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                physical.close();
+            } catch (SQLException ignored) {
+            }
+        }
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
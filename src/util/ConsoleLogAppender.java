@@ -0,0 +1,27 @@
+package util;
+
+import java.io.PrintStream;
+
+// Keeps the console looking as it always has: the bare message, with
+// warnings and errors on stderr. DEBUG lines are tagged with their subsystem.
+public class ConsoleLogAppender implements LogAppender {
+
+    @Override
+    public void append(LogRecord record) {
+        PrintStream out = record.getLevel().compareTo(LogLevel.WARN) >= 0 ? System.err : System.out;
+        if (record.getLevel() == LogLevel.DEBUG) {
+            out.println("[" + record.getSubsystem() + "] " + record.getMessage());
+        } else {
+            out.println(record.getMessage());
+        }
+        if (record.getError() != null) {
+            record.getError().printStackTrace(out);
+        }
+    }
+
+    @Override
+    public void flush() {
+        System.out.flush();
+        System.err.flush();
+    }
+}
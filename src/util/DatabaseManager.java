@@ -1,15 +1,87 @@
 package util;
 
 import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class DatabaseManager {
-    public static void initializeDatabase() {
-        System.out.println("✅ Using in-memory mode (no database)");
-        System.out.println("✅ Demo users: admin/admin123, librarian/lib123, member/mem123");
+    private static final Logger LOG = Logger.get("db");
+
+    // -Dlibrary.db.path points tools and benchmarks at a database of their own
+    private static final String DEFAULT_DB_PATH = "library.db";
+    private static final String DRIVER_CLASS = "org.sqlite.JDBC";
+
+    // SQLite allows a single writer, so a handful of connections is plenty
+    private static final int POOL_SIZE = 4;
+    private static final long BORROW_TIMEOUT_MILLIS = 5_000;
+    private static final long IDLE_VALIDATION_MILLIS = 30_000;
+    private static final int STATEMENT_CACHE_SIZE = 32;
+
+    private static volatile ConnectionPool pool;
+    private static final List<Runnable> shutdownTasks = new CopyOnWriteArrayList<>();
+
+    public static synchronized void initializeDatabase() {
+        if (pool != null) {
+            return;
+        }
+
+        try {
+            Class.forName(DRIVER_CLASS);
+        } catch (ClassNotFoundException e) {
+            LOG.info("✅ Using in-memory mode (no database)");
+            LOG.info("✅ Demo users: admin/admin123, librarian/lib123, member/mem123");
+            return;
+        }
+
+        String url = "jdbc:sqlite:" + getDatabasePath();
+        pool = new ConnectionPool(url, POOL_SIZE, BORROW_TIMEOUT_MILLIS,
+                IDLE_VALIDATION_MILLIS, STATEMENT_CACHE_SIZE);
+        Runtime.getRuntime().addShutdownHook(new Thread(DatabaseManager::shutdown, "db-pool-shutdown"));
+        LOG.info("✅ Connection pool ready: " + url + " (max " + POOL_SIZE + " connections)");
+
+        DatabaseSetup.createDatabase();
+    }
+
+    public static Connection getConnection() throws SQLException {
+        ConnectionPool current = pool;
+        if (current == null) {
+            throw new SQLException("Database not available, using in-memory mode");
+        }
+        return current.getConnection();
     }
 
-    public static Connection getConnection() {
-        System.out.println("⚠️ Database not available, using in-memory mode");
-        return null;
+    public static String getDatabasePath() {
+        return System.getProperty("library.db.path", DEFAULT_DB_PATH);
+    }
+
+    public static boolean isAvailable() {
+        return pool != null;
+    }
+
+    public static ConnectionPool getPool() {
+        return pool;
+    }
+
+    // Runs before the pool is closed, e.g. to flush queued writes
+    public static void addShutdownTask(Runnable task) {
+        shutdownTasks.add(task);
+    }
+
+    public static synchronized void shutdown() {
+        for (Runnable task : shutdownTasks) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                LOG.error("❌ Shutdown task failed: " + e.getMessage());
+            }
+        }
+        shutdownTasks.clear();
+
+        if (pool != null) {
+            LOG.info("Closing database connections: " + pool);
+            pool.close();
+            pool = null;
+        }
     }
-}
\ No newline at end of file
+}
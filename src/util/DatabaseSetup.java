@@ -3,20 +3,25 @@ package util;
 import java.sql.*;
 
 public class DatabaseSetup {
-    private static final String DB_URL = "jdbc:derby:librarydb;create=true";
+    private static final Logger LOG = Logger.get("db");
+
 
     public static void main(String[] args) {
         System.out.println("=== DATABASE SETUP ===");
-        createDatabase();
+        DatabaseManager.initializeDatabase();
+        if (!DatabaseManager.isAvailable()) {
+            System.err.println("❌ SQLite driver not found, nothing to set up");
+            return;
+        }
         System.out.println("✅ Database setup complete!");
-        System.out.println("Database file: library.db");
+        System.out.println("Database file: " + DatabaseManager.getDatabasePath());
     }
 
     public static void createDatabase() {
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+        try (Connection conn = DatabaseManager.getConnection();
              Statement stmt = conn.createStatement()) {
 
-            System.out.println("Creating tables...");
+            LOG.info("Creating tables...");
 
             stmt.execute("PRAGMA foreign_keys = ON");
 
@@ -34,32 +39,11 @@ public class DatabaseSetup {
                 )
             """;
 
-            String booksTable = """
-                CREATE TABLE IF NOT EXISTS books (
-                    isbn TEXT PRIMARY KEY,
-                    title TEXT NOT NULL,
-                    author TEXT NOT NULL,
-                    publication_year INTEGER,
-                    copies INTEGER DEFAULT 1,
-                    available INTEGER DEFAULT 1,
-                    book_type TEXT NOT NULL,
-                    
-                    -- EBook specific fields
-                    file_size_mb REAL,
-                    format TEXT,
-                    download_link TEXT,
-                    drm_protected BOOLEAN DEFAULT false,
-                    
-                    -- PrintedBook specific fields
-                    shelf_location TEXT,
-                    condition TEXT,
-                    edition INTEGER
-                )
-            """;
+            String booksTable = booksTable("books");
 
             String loansTable = """
                 CREATE TABLE IF NOT EXISTS loans (
-                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    id TEXT PRIMARY KEY,
                     user_id TEXT NOT NULL,
                     book_isbn TEXT NOT NULL,
                     borrow_date TEXT NOT NULL,
@@ -75,46 +59,200 @@ public class DatabaseSetup {
             stmt.execute(usersTable);
             stmt.execute(booksTable);
             stmt.execute(loansTable);
+            migrateBookIds(conn);
+            migrateLoanIds(conn);
+            migrateAvailability(conn);
+
+            // username and email already get unique indexes; logins look emails up case-insensitively
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_users_email_nocase ON users(email COLLATE NOCASE)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_books_title ON books(title, isbn)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_books_available ON books(title, isbn) WHERE available = 1 AND copies > 0");
+            // "my loans" and "overdue as of" range queries
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_loans_user_status ON loans(user_id, status)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_loans_status_due ON loans(status, due_date)");
 
-            System.out.println("✅ Tables created: users, books, loans");
+            LOG.info("✅ Tables created: users, books, loans");
 
-            insertDefaultAdmin(conn);
+            insertDefaultUsers(conn);
 
             insertSampleBooks(conn);
 
         } catch (SQLException e) {
-            System.err.println("❌ Database error: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("❌ Database error", e);
         }
     }
 
-    private static void insertDefaultAdmin(Connection conn) throws SQLException {
-        String checkSql = "SELECT COUNT(*) FROM users WHERE username = 'admin'";
-        try (Statement checkStmt = conn.createStatement();
-             ResultSet rs = checkStmt.executeQuery(checkSql)) {
+    // id is an alias for the rowid, so the FTS index (content_rowid='id') keeps
+    // pointing at the right rows; an implicit rowid may be renumbered by VACUUM.
+    // isbn stays the key everything else uses.
+    private static String booksTable(String name) {
+        return """
+            CREATE TABLE IF NOT EXISTS %s (
+                id INTEGER PRIMARY KEY,
+                isbn TEXT UNIQUE NOT NULL,
+                title TEXT NOT NULL,
+                author TEXT NOT NULL,
+                publication_year INTEGER,
+                copies INTEGER DEFAULT 1,
+                available INTEGER DEFAULT 1,
+                book_type TEXT NOT NULL,
 
-            if (rs.getInt(1) == 0) {
-                String insertSql = """
-                    INSERT INTO users (id, name, email, mobile, username, password_hash, role)
-                    VALUES (?, ?, ?, ?, ?, ?, ?)
-                """;
+                -- EBook specific fields
+                file_size_mb REAL,
+                format TEXT,
+                download_link TEXT,
+                drm_protected BOOLEAN DEFAULT false,
 
-                try (PreparedStatement pstmt = conn.prepareStatement(insertSql)) {
-                    pstmt.setString(1, "admin001");
-                    pstmt.setString(2, "System Administrator");
-                    pstmt.setString(3, "admin@library.com");
-                    pstmt.setString(4, "555-0000");
-                    pstmt.setString(5, "admin");
-                    pstmt.setString(6, "admin123:salt:hash");
-                    pstmt.setString(7, "ADMIN");
+                -- PrintedBook specific fields
+                shelf_location TEXT,
+                condition TEXT,
+                edition INTEGER
+            )
+        """.formatted(name);
+    }
 
-                    pstmt.executeUpdate();
-                    System.out.println("✅ Default admin created: admin/admin123");
+    // Databases created before books had an id column are rebuilt with one,
+    // following SQLite's recipe for changing a table: foreign keys off, copy
+    // into a new table, swap it in. The old full-text index was keyed on the
+    // implicit rowid, so it is dropped; SQLiteBookRepository rebuilds it.
+    private static void migrateBookIds(Connection conn) throws SQLException {
+        boolean hasId = false;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(books)")) {
+            while (rs.next()) {
+                if ("id".equals(rs.getString("name"))) {
+                    hasId = true;
                 }
-            } else {
-                System.out.println("✅ Admin already exists");
             }
         }
+        if (hasId) {
+            return;
+        }
+
+        String columns = "isbn, title, author, publication_year, copies, available, book_type, "
+                + "file_size_mb, format, download_link, drm_protected, shelf_location, condition, edition";
+        boolean autoCommit = conn.getAutoCommit();
+        try (Statement stmt = conn.createStatement()) {
+            // Has no effect inside a transaction, so it is switched before one starts
+            stmt.execute("PRAGMA foreign_keys = OFF");
+            conn.setAutoCommit(false);
+            try {
+                stmt.execute("DROP TRIGGER IF EXISTS books_fts_insert");
+                stmt.execute("DROP TRIGGER IF EXISTS books_fts_delete");
+                stmt.execute("DROP TRIGGER IF EXISTS books_fts_update");
+                stmt.execute("DROP TABLE IF EXISTS books_fts");
+                stmt.execute(booksTable("books_new"));
+                stmt.execute("INSERT INTO books_new (" + columns + ") SELECT " + columns + " FROM books");
+                stmt.execute("DROP TABLE books");
+                stmt.execute("ALTER TABLE books_new RENAME TO books");
+                conn.commit();
+                LOG.info("✅ Migrated books to an INTEGER PRIMARY KEY id");
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+                stmt.execute("PRAGMA foreign_keys = ON");
+            }
+        }
+    }
+
+    // Databases created before loan ids became text still have an INTEGER
+    // AUTOINCREMENT id, which rejects "LN..." ids. SQLite cannot alter a column
+    // type, so the table is rebuilt with the rows copied across.
+    private static void migrateLoanIds(Connection conn) throws SQLException {
+        String idType = null;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(loans)")) {
+            while (rs.next()) {
+                if ("id".equals(rs.getString("name"))) {
+                    idType = rs.getString("type");
+                }
+            }
+        }
+        if (!"INTEGER".equalsIgnoreCase(idType)) {
+            return;
+        }
+
+        String columns = "id, user_id, book_isbn, borrow_date, due_date, return_date, fine_amount, status";
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE loans RENAME TO loans_old");
+            stmt.execute("""
+                CREATE TABLE loans (
+                    id TEXT PRIMARY KEY,
+                    user_id TEXT NOT NULL,
+                    book_isbn TEXT NOT NULL,
+                    borrow_date TEXT NOT NULL,
+                    due_date TEXT NOT NULL,
+                    return_date TEXT,
+                    fine_amount REAL DEFAULT 0.0,
+                    status TEXT DEFAULT 'ACTIVE',
+                    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+                    FOREIGN KEY (book_isbn) REFERENCES books(isbn) ON DELETE CASCADE
+                )
+            """);
+            stmt.execute("INSERT INTO loans (" + columns + ") SELECT CAST(id AS TEXT), "
+                    + columns.substring("id, ".length()) + " FROM loans_old");
+            stmt.execute("DROP TABLE loans_old");
+            conn.commit();
+            LOG.info("✅ Migrated loans.id to TEXT");
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    // available used to be cleared whenever the last copy went out, so on an
+    // old database it says nothing about withdrawal. Nothing withdrew books back
+    // then, so every row starts out lendable; runs once, tracked by user_version.
+    private static void migrateAvailability(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            int version;
+            try (ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+                version = rs.next() ? rs.getInt(1) : 0;
+            }
+            if (version >= 1) {
+                return;
+            }
+            int updated = stmt.executeUpdate("UPDATE books SET available = 1 WHERE available = 0");
+            stmt.execute("PRAGMA user_version = 1");
+            if (updated > 0) {
+                LOG.info("✅ Reset availability on " + updated + " books");
+            }
+        }
+    }
+
+    private static void insertDefaultUsers(Connection conn) throws SQLException {
+        String insertSql = """
+            INSERT OR IGNORE INTO users (id, name, email, mobile, username, password_hash, role)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+        """;
+
+        String[][] defaults = {
+                {"admin001", "System Administrator", "admin@library.com", "555-0000", "admin", "admin123:salt:hash", "ADMIN"},
+                {"lib001", "Librarian User", "librarian@library.com", "555-0001", "librarian", "lib123", "LIBRARIAN"},
+                {"mem001", "Member User", "member@library.com", "555-0002", "member", "mem123", "MEMBER"}
+        };
+
+        int inserted = 0;
+        try (PreparedStatement pstmt = conn.prepareStatement(insertSql)) {
+            for (String[] user : defaults) {
+                for (int i = 0; i < user.length; i++) {
+                    pstmt.setString(i + 1, user[i]);
+                }
+                inserted += pstmt.executeUpdate();
+            }
+        }
+
+        if (inserted > 0) {
+            LOG.info("✅ Default users created: admin/admin123, librarian/lib123, member/mem123");
+        } else {
+            LOG.info("✅ Default users already exist");
+        }
     }
 
     private static void insertSampleBooks(Connection conn) throws SQLException {
@@ -123,7 +261,7 @@ public class DatabaseSetup {
              ResultSet rs = checkStmt.executeQuery(checkSql)) {
 
             if (rs.getInt(1) == 0) {
-                System.out.println("Inserting sample books...");
+                LOG.info("Inserting sample books...");
 
                 String ebookSql = """
                     INSERT INTO books (isbn, title, author, publication_year, copies, available, book_type,
@@ -168,9 +306,9 @@ public class DatabaseSetup {
                     pstmt.executeUpdate();
                 }
 
-                System.out.println("✅ Sample books inserted");
+                LOG.info("✅ Sample books inserted");
             } else {
-                System.out.println("✅ Books already exist in database");
+                LOG.info("✅ Books already exist in database");
             }
         }
     }
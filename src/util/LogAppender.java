@@ -0,0 +1,9 @@
+package util;
+
+public interface LogAppender {
+    void append(LogRecord record);
+
+    // Blocks until everything appended so far has been written
+    default void flush() {
+    }
+}
@@ -0,0 +1,5 @@
+package util;
+
+public enum LogLevel {
+    DEBUG, INFO, WARN, ERROR, OFF
+}
@@ -0,0 +1,27 @@
+package util;
+
+// One log event, handed to a LogAppender
+public class LogRecord {
+    private final long timestampMillis;
+    private final LogLevel level;
+    private final String subsystem;
+    private final String threadName;
+    private final String message;
+    private final Throwable error;
+
+    public LogRecord(LogLevel level, String subsystem, String message, Throwable error) {
+        this.timestampMillis = System.currentTimeMillis();
+        this.level = level;
+        this.subsystem = subsystem;
+        this.threadName = Thread.currentThread().getName();
+        this.message = message;
+        this.error = error;
+    }
+
+    public long getTimestampMillis() { return timestampMillis; }
+    public LogLevel getLevel() { return level; }
+    public String getSubsystem() { return subsystem; }
+    public String getThreadName() { return threadName; }
+    public String getMessage() { return message; }
+    public Throwable getError() { return error; }
+}
@@ -0,0 +1,141 @@
+package util;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Per-subsystem logger, e.g. Logger.get("repository.books"). A disabled level
+// costs one int comparison; pass a Supplier when building the message is not
+// free, so it is only built when the level is enabled.
+//
+// Levels come from system properties: library.log.level sets the default and
+// library.log.<subsystem> overrides it for a subsystem and everything below
+// it, e.g. -Dlibrary.log.repository=DEBUG. Records go to an async console
+// appender unless another one is installed with setAppender().
+public final class Logger {
+    private static final String PROPERTY_PREFIX = "library.log.";
+    private static final int BUFFER_CAPACITY = 8_192;
+
+    private static final Map<String, Logger> LOGGERS = new ConcurrentHashMap<>();
+    // setLevel() thresholds, kept so loggers created later pick them up too
+    private static final Map<String, LogLevel> OVERRIDES = new ConcurrentHashMap<>();
+    private static volatile LogAppender appender = createDefaultAppender();
+    private static volatile LogLevel defaultLevel =
+            parseLevel(System.getProperty(PROPERTY_PREFIX + "level", "INFO"));
+
+    private final String subsystem;
+    private volatile int threshold;
+
+    private Logger(String subsystem) {
+        this.subsystem = subsystem;
+        this.threshold = configuredLevel(subsystem).ordinal();
+    }
+
+    public static Logger get(String subsystem) {
+        return LOGGERS.computeIfAbsent(subsystem, Logger::new);
+    }
+
+    public static void setAppender(LogAppender newAppender) {
+        appender.flush();
+        appender = newAppender;
+    }
+
+    // Applies to every subsystem without a level of its own
+    public static void setDefaultLevel(LogLevel level) {
+        defaultLevel = level;
+        reconfigure();
+    }
+
+    // Applies to the subsystem and every subsystem below it, now and later,
+    // unless one below has a level of its own
+    public static void setLevel(String subsystem, LogLevel level) {
+        OVERRIDES.put(subsystem, level);
+        reconfigure();
+    }
+
+    private static void reconfigure() {
+        for (Logger logger : LOGGERS.values()) {
+            logger.threshold = configuredLevel(logger.subsystem).ordinal();
+        }
+    }
+
+    public static void flush() {
+        appender.flush();
+    }
+
+    public boolean isEnabled(LogLevel level) {
+        return level.ordinal() >= threshold;
+    }
+
+    public boolean isDebugEnabled() {
+        return isEnabled(LogLevel.DEBUG);
+    }
+
+    public void debug(String message) {
+        log(LogLevel.DEBUG, message, null);
+    }
+
+    public void debug(Supplier<String> message) {
+        if (isEnabled(LogLevel.DEBUG)) {
+            log(LogLevel.DEBUG, message.get(), null);
+        }
+    }
+
+    public void info(String message) {
+        log(LogLevel.INFO, message, null);
+    }
+
+    public void warn(String message) {
+        log(LogLevel.WARN, message, null);
+    }
+
+    public void error(String message) {
+        log(LogLevel.ERROR, message, null);
+    }
+
+    public void error(String message, Throwable error) {
+        log(LogLevel.ERROR, message, error);
+    }
+
+    private void log(LogLevel level, String message, Throwable error) {
+        if (level.ordinal() >= threshold) {
+            appender.append(new LogRecord(level, subsystem, message, error));
+        }
+    }
+
+    // The most specific setting wins; at the same depth setLevel() beats a property
+    private static LogLevel configuredLevel(String subsystem) {
+        String name = subsystem;
+        while (true) {
+            LogLevel override = OVERRIDES.get(name);
+            if (override != null) {
+                return override;
+            }
+            String value = System.getProperty(PROPERTY_PREFIX + name);
+            if (value != null) {
+                return parseLevel(value);
+            }
+            int dot = name.lastIndexOf('.');
+            if (dot < 0) {
+                break;
+            }
+            name = name.substring(0, dot);
+        }
+        return defaultLevel;
+    }
+
+    private static LogLevel parseLevel(String value) {
+        try {
+            return LogLevel.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return LogLevel.INFO;
+        }
+    }
+
+    private static LogAppender createDefaultAppender() {
+        AsyncLogAppender async = new AsyncLogAppender(new ConsoleLogAppender(), BUFFER_CAPACITY);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> appender.flush(), "log-flush"));
+        return async;
+    }
+}
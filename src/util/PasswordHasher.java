@@ -0,0 +1,10 @@
+package util;
+
+// Turns passwords into self-describing stored strings and checks attempts
+// against them. needsRehash() tells the caller that a stored value should be
+// replaced with hash(password) the next time the plain password is known.
+public interface PasswordHasher {
+    String hash(String password);
+    boolean matches(String passwordAttempt, String stored);
+    boolean needsRehash(String stored);
+}
@@ -0,0 +1,155 @@
+package util;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+// Stores passwords as "pbkdf2$<iterations>$<salt>$<hash>" (PBKDF2-HMAC-SHA256,
+// Base64 salt and hash). The iteration count is part of the stored value, so it
+// can be raised with -Dlibrary.password.iterations without breaking old hashes;
+// those are reported by needsRehash() and upgraded on the next login.
+//
+// Older values are still accepted: plain text from the seed data, "salt:hash"
+// single-round SHA-256, and "password:..." where the first part is the password.
+public class Pbkdf2PasswordHasher implements PasswordHasher {
+    public static final int DEFAULT_ITERATIONS = 210_000;
+
+    private static final String PREFIX = "pbkdf2$";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final int LEGACY_HASH_BYTES = 32;
+
+    private final int iterations;
+    private final SecureRandom random = new SecureRandom();
+
+    public Pbkdf2PasswordHasher() {
+        this(Integer.getInteger("library.password.iterations", DEFAULT_ITERATIONS));
+    }
+
+    public Pbkdf2PasswordHasher(int iterations) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("Iterations must be positive: " + iterations);
+        }
+        this.iterations = iterations;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    @Override
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        Base64.Encoder encoder = Base64.getEncoder();
+        return PREFIX + iterations + "$" + encoder.encodeToString(salt)
+                + "$" + encoder.encodeToString(derive(password, salt, iterations));
+    }
+
+    @Override
+    public boolean matches(String passwordAttempt, String stored) {
+        if (passwordAttempt == null || stored == null) {
+            return false;
+        }
+        if (stored.startsWith(PREFIX)) {
+            return matchesPbkdf2(passwordAttempt, stored);
+        }
+        int colon = stored.indexOf(':');
+        if (colon < 0 || onlyColonsAfter(stored, colon)) {
+            return constantTimeEquals(stored, passwordAttempt);
+        }
+        byte[][] saltAndHash = decodeLegacy(stored, colon);
+        if (saltAndHash != null) {
+            return MessageDigest.isEqual(saltAndHash[1], sha256(saltAndHash[0], passwordAttempt));
+        }
+        return constantTimeEquals(stored.substring(0, colon), passwordAttempt);
+    }
+
+    @Override
+    public boolean needsRehash(String stored) {
+        if (stored == null || !stored.startsWith(PREFIX)) {
+            return true;
+        }
+        int end = stored.indexOf('$', PREFIX.length());
+        try {
+            return end < 0 || Integer.parseInt(stored.substring(PREFIX.length(), end)) < iterations;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    private boolean matchesPbkdf2(String passwordAttempt, String stored) {
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        try {
+            int storedIterations = Integer.parseInt(parts[1]);
+            byte[] salt = Base64.getDecoder().decode(parts[2]);
+            byte[] expected = Base64.getDecoder().decode(parts[3]);
+            return storedIterations > 0
+                    && MessageDigest.isEqual(expected, derive(passwordAttempt, salt, storedIterations));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    // Only a value that decodes to a 16-byte salt and a SHA-256 digest counts as
+    // "salt:hash"; anything else with a colon is the older "password:..." form
+    private static byte[][] decodeLegacy(String stored, int colon) {
+        if (stored.indexOf(':', colon + 1) >= 0) {
+            return null;
+        }
+        try {
+            byte[] salt = Base64.getDecoder().decode(stored.substring(0, colon));
+            byte[] hash = Base64.getDecoder().decode(stored.substring(colon + 1));
+            if (salt.length == SALT_BYTES && hash.length == LEGACY_HASH_BYTES) {
+                return new byte[][] {salt, hash};
+            }
+        } catch (IllegalArgumentException e) {
+            // not Base64
+        }
+        return null;
+    }
+
+    // "secret:" was always compared as a whole, since there is no second part
+    private static boolean onlyColonsAfter(String stored, int colon) {
+        for (int i = colon + 1; i < stored.length(); i++) {
+            if (stored.charAt(i) != ':') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] sha256(byte[] salt, String password) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(salt);
+            return digest.digest(password.getBytes());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    }
+
+    private static boolean constantTimeEquals(String expected, String attempt) {
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8),
+                attempt.getBytes(StandardCharsets.UTF_8));
+    }
+}
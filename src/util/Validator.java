@@ -1,40 +1,127 @@
 package util;
 
-import java.util.regex.Pattern;
-
+// Hand-written scanners rather than regular expressions: bulk imports call these
+// millions of times, and none of them allocates. Each check accepts exactly what
+// the pattern in its comment accepts, apart from the ISBN checksum.
 public class Validator {
+    private static final int MIN_PASSWORD_LENGTH = 8;
+    private static final int MIN_NAME_LENGTH = 2;
+    private static final int MAX_NAME_LENGTH = 50;
 
+    // ^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\.[A-Za-z]{2,}$
     public static boolean isValidEmail(String email) {
-        if (email == null || email.trim().isEmpty()) return false;
-        String emailRegex = "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$";
-        return Pattern.compile(emailRegex).matcher(email).matches();
+        if (email == null) return false;
+        int length = email.length();
+        int at = -1;
+        for (int i = 0; i < length; i++) {
+            char c = email.charAt(i);
+            if (c == '@') {
+                at = i;
+                break;
+            }
+            if (!isAsciiLetterOrDigit(c) && c != '+' && c != '_' && c != '.' && c != '-') {
+                return false;
+            }
+        }
+        if (at < 1) return false;
+
+        // The TLD has no dots, so it starts after the last one
+        int lastDot = -1;
+        for (int i = at + 1; i < length; i++) {
+            char c = email.charAt(i);
+            if (c == '.') {
+                lastDot = i;
+            } else if (!isAsciiLetterOrDigit(c) && c != '-') {
+                return false;
+            }
+        }
+        if (lastDot < at + 2 || length - lastDot - 1 < 2) return false;
+        for (int i = lastDot + 1; i < length; i++) {
+            if (!isAsciiLetter(email.charAt(i))) return false;
+        }
+        return true;
     }
 
+    // 10 or 13 digits (ISBN-10 may end in X) with a valid check digit;
+    // whitespace and hyphens are ignored
     public static boolean isValidISBN(String isbn) {
         if (isbn == null) return false;
-        String cleanISBN = isbn.replaceAll("[\\s-]", "");
-        return cleanISBN.matches("\\d{10}|\\d{13}");
+        int digits = 0;
+        int sum10 = 0;
+        int sum13 = 0;
+        boolean endsWithX = false;
+        for (int i = 0; i < isbn.length(); i++) {
+            char c = isbn.charAt(i);
+            if (c == '-' || isRegexWhitespace(c)) continue;
+            if (endsWithX) return false;
+            int value;
+            if (c >= '0' && c <= '9') {
+                value = c - '0';
+            } else if (c == 'X' && digits == 9) {
+                value = 10;
+                endsWithX = true;
+            } else {
+                return false;
+            }
+            if (digits == 13) return false;
+            if (digits < 10) sum10 += (10 - digits) * value;
+            sum13 += (digits % 2 == 0) ? value : value * 3;
+            digits++;
+        }
+        if (digits == 10) return sum10 % 11 == 0;
+        return digits == 13 && !endsWithX && sum13 % 10 == 0;
     }
 
+    // ^\(?\d{3}\)?[-\s]?\d{3}[-\s]?\d{4}$, e.g. 555-123-4567, (555) 123-4567, 5551234567
     public static boolean isValidPhone(String phone) {
-        if (phone == null || phone.trim().isEmpty()) return false;
-        // Allow formats: 555-1234, (555) 123-4567, 5551234567
-        return phone.matches("^\\(?\\d{3}\\)?[-\\s]?\\d{3}[-\\s]?\\d{4}$");
+        if (phone == null) return false;
+        int length = phone.length();
+        int pos = 0;
+        if (pos < length && phone.charAt(pos) == '(') pos++;
+        pos = skipDigits(phone, pos, 3);
+        if (pos < 0) return false;
+        if (pos < length && phone.charAt(pos) == ')') pos++;
+        if (pos < length && isPhoneSeparator(phone.charAt(pos))) pos++;
+        pos = skipDigits(phone, pos, 3);
+        if (pos < 0) return false;
+        if (pos < length && isPhoneSeparator(phone.charAt(pos))) pos++;
+        pos = skipDigits(phone, pos, 4);
+        return pos == length;
     }
 
+    // At least 8 characters with an upper- and lowercase letter, a digit and
+    // something else (all ASCII classes, as in [A-Z], [a-z], \d, [^A-Za-z0-9])
     public static boolean isStrongPassword(String password) {
-        if (password == null || password.length() < 8) return false;
-        boolean hasUpper = Pattern.compile("[A-Z]").matcher(password).find();
-        boolean hasLower = Pattern.compile("[a-z]").matcher(password).find();
-        boolean hasDigit = Pattern.compile("\\d").matcher(password).find();
-        boolean hasSpecial = Pattern.compile("[^A-Za-z0-9]").matcher(password).find();
-
+        if (password == null || password.length() < MIN_PASSWORD_LENGTH) return false;
+        boolean hasUpper = false;
+        boolean hasLower = false;
+        boolean hasDigit = false;
+        boolean hasSpecial = false;
+        for (int i = 0; i < password.length(); i++) {
+            char c = password.charAt(i);
+            if (c >= 'A' && c <= 'Z') hasUpper = true;
+            else if (c >= 'a' && c <= 'z') hasLower = true;
+            else if (c >= '0' && c <= '9') hasDigit = true;
+            else hasSpecial = true;
+        }
         return hasUpper && hasLower && hasDigit && hasSpecial;
     }
 
+    // ^[A-Za-zÀ-ÿ-'\s]{2,50}$ and not blank
     public static boolean isValidName(String name) {
-        if (name == null || name.trim().isEmpty()) return false;
-        return name.matches("^[A-Za-zÀ-ÿ-'\\s]{2,50}$");
+        if (name == null) return false;
+        int length = name.length();
+        if (length < MIN_NAME_LENGTH || length > MAX_NAME_LENGTH) return false;
+        boolean blank = true;
+        for (int i = 0; i < length; i++) {
+            char c = name.charAt(i);
+            if (isRegexWhitespace(c)) continue;
+            if (!isAsciiLetter(c) && !(c >= 'À' && c <= 'ÿ') && c != '-' && c != '\'') {
+                return false;
+            }
+            blank = false;
+        }
+        return !blank;
     }
 
     public static boolean isValidYear(int year) {
@@ -62,4 +149,31 @@ public class Validator {
             default -> input.length() <= 255;
         };
     }
-}
\ No newline at end of file
+
+    // Position after count digits starting at pos, or -1
+    private static int skipDigits(String s, int pos, int count) {
+        if (pos + count > s.length()) return -1;
+        for (int i = pos; i < pos + count; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return -1;
+        }
+        return pos + count;
+    }
+
+    private static boolean isPhoneSeparator(char c) {
+        return c == '-' || isRegexWhitespace(c);
+    }
+
+    // The \s class: [ \t\n\x0B\f\r]
+    private static boolean isRegexWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+
+    private static boolean isAsciiLetterOrDigit(char c) {
+        return isAsciiLetter(c) || (c >= '0' && c <= '9');
+    }
+}